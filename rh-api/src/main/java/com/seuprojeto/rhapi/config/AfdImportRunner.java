@@ -0,0 +1,55 @@
+package com.seuprojeto.rhapi.config;
+
+import com.seuprojeto.rhapi.service.ImportacaoAfdService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Importação de AFD pela linha de comando, sem subir o servidor web:
+ *
+ *   java -jar rh-api.jar --spring.main.web-application-type=none --importar-afd=/caminho/AFD.txt [--rep=00004004330000000]
+ *
+ * Sem a opção --importar-afd este runner não faz nada.
+ */
+@Component
+public class AfdImportRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(AfdImportRunner.class);
+
+    private final ImportacaoAfdService importacao;
+    private final ApplicationContext ctx;
+
+    public AfdImportRunner(ImportacaoAfdService importacao, ApplicationContext ctx) {
+        this.importacao = importacao;
+        this.ctx = ctx;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption("importar-afd")) return;
+
+        String rep = args.containsOption("rep") ? args.getOptionValues("rep").get(0) : null;
+        int status = 0;
+        for (String arquivo : args.getOptionValues("importar-afd")) {
+            Path path = Path.of(arquivo);
+            try (InputStream in = Files.newInputStream(path)) {
+                var r = importacao.importar(in, rep, path.getFileName().toString());
+                log.info("[AFD] {} -> {}", path, r);
+            } catch (Exception e) {
+                log.error("[AFD] Falha ao importar {}", path, e);
+                status = 1;
+            }
+        }
+        final int codigo = status;
+        System.exit(SpringApplication.exit(ctx, () -> codigo));
+    }
+}
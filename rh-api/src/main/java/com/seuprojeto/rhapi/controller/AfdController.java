@@ -0,0 +1,73 @@
+package com.seuprojeto.rhapi.controller;
+
+import com.seuprojeto.rhapi.service.ExportacaoAfdService;
+import com.seuprojeto.rhapi.service.ImportacaoAfdService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/pontos/afd")
+@Tag(name = "AFD (relógios REP)")
+public class AfdController {
+
+    private final ImportacaoAfdService importacao;
+    private final ExportacaoAfdService exportacao;
+
+    public AfdController(ImportacaoAfdService importacao, ExportacaoAfdService exportacao) {
+        this.importacao = importacao;
+        this.exportacao = exportacao;
+    }
+
+    // IMPORTAÇÃO: corpo da requisição = arquivo AFD bruto (ex.: curl --data-binary @AFD.txt)
+
+    @Operation(summary = "Importa marcações de um AFD (Portaria 671); NSRs já importados do mesmo REP são ignorados")
+    @PostMapping(value = "/importar", consumes = {MediaType.APPLICATION_OCTET_STREAM_VALUE, MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<?> importar(InputStream corpo,
+                                      @RequestParam(required = false) String rep,
+                                      @RequestParam(required = false) String arquivo) {
+        try {
+            return ResponseEntity.ok(importacao.importar(corpo, rep, arquivo));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        } catch (Exception ex) {
+            return ResponseEntity.internalServerError().body("Falha ao importar AFD: " + ex.getMessage());
+        }
+    }
+
+    // EXPORTAÇÃO: empresa inteira, gerada em streaming (memória constante), opcionalmente em gzip
+
+    @Operation(summary = "Exporta as marcações do período no estilo AFD (largura fixa) ou AEJ")
+    @GetMapping("/exportar")
+    public ResponseEntity<?> exportar(@RequestParam LocalDate de,
+                                      @RequestParam LocalDate ate,
+                                      @RequestParam(defaultValue = "AFD") ExportacaoAfdService.Formato formato,
+                                      @RequestParam(defaultValue = "false") boolean gzip) {
+        if (ate.isBefore(de)) return ResponseEntity.badRequest().body("'ate' deve ser igual ou posterior a 'de'");
+
+        String nome = formato + "_" + de + "_" + ate + ".txt" + (gzip ? ".gz" : "");
+        StreamingResponseBody corpo = out -> {
+            if (gzip) {
+                GZIPOutputStream gz = new GZIPOutputStream(out, 64 * 1024);
+                exportacao.exportar(formato, de, ate, gz);
+                gz.finish();
+            } else {
+                exportacao.exportar(formato, de, ate, out);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + nome + "\"")
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                                  : MediaType.parseMediaType("text/plain;charset=ISO-8859-1"))
+                .body(corpo);
+    }
+}
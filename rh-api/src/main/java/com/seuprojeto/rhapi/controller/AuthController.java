@@ -4,10 +4,10 @@ import com.seuprojeto.rhapi.domain.Colaborador;
 import com.seuprojeto.rhapi.dto.LoginRequest;
 import com.seuprojeto.rhapi.dto.LoginResponse;
 import com.seuprojeto.rhapi.repository.ColaboradorRepository;
+import com.seuprojeto.rhapi.security.CurrentUserService;
 import com.seuprojeto.rhapi.security.JwtService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,13 +22,16 @@ public class AuthController {
     private final ColaboradorRepository colabRepo;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final CurrentUserService currentUser;
 
     public AuthController(ColaboradorRepository colabRepo,
                           PasswordEncoder passwordEncoder,
-                          JwtService jwtService) {
+                          JwtService jwtService,
+                          CurrentUserService currentUser) {
         this.colabRepo = colabRepo;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
+        this.currentUser = currentUser;
     }
 
     @PostMapping("/login")
@@ -62,6 +65,7 @@ public class AuthController {
         claims.put("email", c.getEmail());
         claims.put("papel", c.getPapel().name());
         claims.put("id", c.getId());
+        claims.put("ativo", !Boolean.FALSE.equals(c.getAtivo()));
         claims.put("nome", c.getNome());
 
         String token = jwtService.generate(c.getEmail(), claims);
@@ -77,13 +81,11 @@ public class AuthController {
 
     @GetMapping("/me")
     public ResponseEntity<?> me() {
-        var auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || auth.getName() == null) {
+        if (currentUser.getColaboradorId().isEmpty()) {
             return ResponseEntity.status(401).body("Não autenticado");
         }
-        String email = auth.getName();
 
-        Optional<Colaborador> opt = colabRepo.findByEmailIgnoreCase(email);
+        Optional<Colaborador> opt = currentUser.getColaborador();
         if (opt.isEmpty()) {
             return ResponseEntity.status(404).body("Usuário não encontrado");
         }
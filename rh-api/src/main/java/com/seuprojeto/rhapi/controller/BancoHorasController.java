@@ -1,16 +1,19 @@
 package com.seuprojeto.rhapi.controller;
 
-import com.seuprojeto.rhapi.domain.Colaborador;
 import com.seuprojeto.rhapi.dto.ExtratoDiaDTO;
-import com.seuprojeto.rhapi.repository.ColaboradorRepository;
-import com.seuprojeto.rhapi.repository.SolicitacaoFeriasRepository;
-import com.seuprojeto.rhapi.domain.enums.StatusFerias;
+import com.seuprojeto.rhapi.mapper.DtoMapper;
 import com.seuprojeto.rhapi.service.BancoHorasService;
+import com.seuprojeto.rhapi.service.ExtratoStreamingService;
+import com.seuprojeto.rhapi.service.FechamentoMensalService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
-import java.time.Period;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @RestController
@@ -18,15 +21,15 @@ import java.util.List;
 public class BancoHorasController {
 
     private final BancoHorasService service;
-    private final ColaboradorRepository colabRepo;
-    private final SolicitacaoFeriasRepository feriasRepo;
+    private final FechamentoMensalService fechamento;
+    private final ExtratoStreamingService extratoStreaming;
 
     public BancoHorasController(BancoHorasService service,
-                                ColaboradorRepository colabRepo,
-                                SolicitacaoFeriasRepository feriasRepo) {
+                                FechamentoMensalService fechamento,
+                                ExtratoStreamingService extratoStreaming) {
         this.service = service;
-        this.colabRepo = colabRepo;
-        this.feriasRepo = feriasRepo;
+        this.fechamento = fechamento;
+        this.extratoStreaming = extratoStreaming;
     }
 
 
@@ -38,16 +41,14 @@ public class BancoHorasController {
                                      @RequestParam LocalDate ate) {
         try {
             var dtoBase = service.extratoPeriodo(colaboradorId, de, ate); // dias + saldoTotalMin
-            var colab = colabRepo.findById(colaboradorId)
-                    .orElseThrow(() -> new IllegalArgumentException("Colaborador não encontrado"));
 
-            // 1) Saldo de férias proporcional:
-            int saldoFeriasDias = calcularSaldoFeriasDisponivel(colab);
+            // 1) Saldo de férias proporcional (SaldoFeriasService, já calculado no extrato):
+            int saldoFeriasDias = dtoBase.saldoFeriasDias();
 
-           
-            int bancoAcumuladoMin = dtoBase.saldoTotalMin();
+            // 2) Banco acumulado = acumulado até a competência anterior + saldo do período
+            //    (o mesmo da linha de totais do NDJSON)
+            int bancoAcumuladoMin = dtoBase.bancoAcumuladoMin();
 
-            
             var resposta = new ExtratoPeriodoOutDTO(
                     dtoBase.colaboradorId(),
                     dtoBase.de(),
@@ -67,30 +68,86 @@ public class BancoHorasController {
     }
 
 
-    private int calcularSaldoFeriasDisponivel(Colaborador c) {
-        LocalDate adm = c.getDataAdmissao();
-        if (adm == null) return 0;
+    // EXTRATO em NDJSON (Accept: application/x-ndjson): um dia por linha + linha de totais,
+    // escrito enquanto é calculado; para períodos longos (auditoria), memória constante
 
-        LocalDate hoje = LocalDate.now();
-        if (hoje.isBefore(adm)) return 0;
+    @GetMapping(value = "/extrato", produces = "application/x-ndjson")
+    public ResponseEntity<?> extratoNdjson(@RequestParam Long colaboradorId,
+                                           @RequestParam LocalDate de,
+                                           @RequestParam LocalDate ate) {
+        try {
+            extratoStreaming.validar(colaboradorId, de, ate);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(ex.getMessage());
+        }
+        StreamingResponseBody corpo = out -> extratoStreaming.escrever(colaboradorId, de, ate, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(corpo);
+    }
 
-        Period p = Period.between(adm, hoje);
-        int meses = p.getYears() * 12 + p.getMonths();
 
-        int adquiridos = (int) Math.floor(meses * 2.5);
-        if (adquiridos > 30) adquiridos = 30; // teto do ciclo atual
+    // RELATÓRIO de horas da competência (departamentos e empresa): trabalhado somado no banco,
+    // previsto pela jornada menos feriados e férias aprovadas
 
-        // Considera pedidos em aberto (CRIADA) e já aprovados (APROVADA) como "consumo" do saldo disponível
-        int consumidos = feriasRepo.sumDiasByStatuses(
-                c.getId(),
-                List.of(StatusFerias.CRIADA, StatusFerias.APROVADA)
-        );
+    @GetMapping("/relatorio")
+    public ResponseEntity<?> relatorio(@RequestParam String competencia) {
+        try {
+            return ResponseEntity.ok(service.relatorioDepartamentos(YearMonth.parse(competencia)));
+        } catch (DateTimeParseException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
 
-        int saldo = adquiridos - consumidos;
-        if (saldo < 0) saldo = 0;
-        if (saldo > 30) saldo = 30;
+    @GetMapping("/relatorio/colaboradores")
+    public ResponseEntity<?> relatorioColaboradores(@RequestParam String competencia,
+                                                    @RequestParam(required = false) Long departamentoId) {
+        try {
+            return ResponseEntity.ok(service.relatorioColaboradores(YearMonth.parse(competencia), departamentoId));
+        } catch (DateTimeParseException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
 
-        return saldo;
+
+    // RECONCILIAÇÃO: recalcula a competência do zero
+    // (o saldo já é mantido incrementalmente a cada batida; use apenas para corrigir divergências)
+
+    @PostMapping("/recalcular")
+    public ResponseEntity<?> recalcular(@RequestParam Long colaboradorId,
+                                        @RequestParam String competencia) {
+        try {
+            var banco = service.recalcularSaldoMensal(colaboradorId, YearMonth.parse(competencia));
+            return ResponseEntity.ok(DtoMapper.toDTO(banco));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+
+    // FECHAMENTO MENSAL da empresa inteira: roda em segundo plano, em chunks paralelos;
+    // chamar de novo retoma os chunks que não concluíram (refazer=true reprocessa tudo)
+
+    @PostMapping("/fechamento")
+    public ResponseEntity<?> fechar(@RequestParam String competencia,
+                                    @RequestParam(defaultValue = "false") boolean refazer) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(fechamento.iniciar(YearMonth.parse(competencia), refazer));
+        } catch (DateTimeParseException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    @GetMapping("/fechamento")
+    public ResponseEntity<?> progressoFechamento(@RequestParam String competencia) {
+        try {
+            return fechamento.progresso(YearMonth.parse(competencia))
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (DateTimeParseException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
     }
 
 
@@ -5,11 +5,13 @@ import com.seuprojeto.rhapi.domain.Departamento;
 import com.seuprojeto.rhapi.domain.enums.Role;
 import com.seuprojeto.rhapi.dto.ColaboradorCreateDTO;
 import com.seuprojeto.rhapi.dto.ColaboradorDTO;
+import com.seuprojeto.rhapi.dto.PaginaDTO;
 import com.seuprojeto.rhapi.mapper.DtoMapper;
 import com.seuprojeto.rhapi.repository.ColaboradorRepository;
 import com.seuprojeto.rhapi.repository.DepartamentoRepository;
 import jakarta.validation.Valid;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -18,7 +20,6 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
-import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -106,19 +107,22 @@ public class ColaboradorController {
         }
     }
 
-    /** Lista todos os colaboradores (DTO de saída). */
+    /** Lista por cursor (ordem de id), com filtros opcionais de departamento e ativo (DTO de saída). */
     @GetMapping
-    public List<ColaboradorDTO> listar() {
-        return repo.findAll().stream()
-                .map(mapper::toColaboradorDTO)
-                .toList();
+    public PaginaDTO<ColaboradorDTO> listar(@RequestParam(required = false) Long departamentoId,
+                                            @RequestParam(required = false) Boolean ativo,
+                                            @RequestParam(required = false) Long cursor,
+                                            @RequestParam(required = false) Integer limite) {
+        int n = PaginaDTO.limite(limite);
+        var linhas = repo.pagina(departamentoId, ativo, cursor == null ? 0 : cursor, Limit.of(n + 1));
+        return PaginaDTO.de(linhas, n, DtoMapper::toDTO, v -> v.getId().toString());
     }
 
     /** Detalhe por ID (DTO de saída). */
     @GetMapping("/{id}")
     public ResponseEntity<?> buscarPorId(@PathVariable Long id) {
-        return repo.findById(id)
-                .map(c -> ResponseEntity.ok(mapper.toColaboradorDTO(c)))
+        return repo.findViewById(id)
+                .map(v -> ResponseEntity.ok(DtoMapper.toDTO(v)))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 }
@@ -5,11 +5,14 @@ import com.seuprojeto.rhapi.dto.DepartamentoCreateDTO;
 import com.seuprojeto.rhapi.dto.DepartamentoDTO;
 import com.seuprojeto.rhapi.mapper.DtoMapper;
 import com.seuprojeto.rhapi.repository.DepartamentoRepository;
+import com.seuprojeto.rhapi.service.BancoHorasService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @RestController
@@ -17,8 +20,11 @@ import java.util.List;
 public class DepartamentoController {
 
     private final DepartamentoRepository repo;
+    private final BancoHorasService bancoHoras;
 
-    public DepartamentoController(DepartamentoRepository repo) { this.repo = repo; }
+    public DepartamentoController(DepartamentoRepository repo, BancoHorasService bancoHoras) {
+        this.repo = repo; this.bancoHoras = bancoHoras;
+    }
 
     @PostMapping
     public ResponseEntity<?> criar(@RequestBody @Valid DepartamentoCreateDTO dto) {
@@ -36,4 +42,17 @@ public class DepartamentoController {
     public List<DepartamentoDTO> listar() {
         return repo.findAll().stream().map(DtoMapper::toDTO).toList();
     }
+
+    // Painel do gestor: banco de horas da equipe inteira em uma chamada (colunas: posição i = mesmo colaborador)
+    @GetMapping("/{id}/banco-horas")
+    public ResponseEntity<?> bancoHoras(@PathVariable Long id, @RequestParam String competencia) {
+        try {
+            YearMonth comp = YearMonth.parse(competencia);
+            return repo.findById(id)
+                    .<ResponseEntity<?>>map(d -> ResponseEntity.ok(bancoHoras.painelDepartamento(d, comp)))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (DateTimeParseException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
 }
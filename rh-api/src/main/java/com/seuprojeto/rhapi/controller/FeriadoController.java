@@ -0,0 +1,66 @@
+package com.seuprojeto.rhapi.controller;
+
+import com.seuprojeto.rhapi.domain.Departamento;
+import com.seuprojeto.rhapi.domain.Feriado;
+import com.seuprojeto.rhapi.dto.FeriadoCreateDTO;
+import com.seuprojeto.rhapi.dto.FeriadoDTO;
+import com.seuprojeto.rhapi.mapper.DtoMapper;
+import com.seuprojeto.rhapi.repository.DepartamentoRepository;
+import com.seuprojeto.rhapi.repository.FeriadoRepository;
+import com.seuprojeto.rhapi.service.CalendarioService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Calendário de feriados. Toda edição descarta as máscaras compiladas do CalendarioService;
+ * saldos mensais já gravados da competência são corrigidos pelo fechamento (POST /banco-horas/fechamento).
+ */
+@RestController
+@RequestMapping("/feriados")
+public class FeriadoController {
+
+    private final FeriadoRepository repo;
+    private final DepartamentoRepository depRepo;
+    private final CalendarioService calendario;
+
+    public FeriadoController(FeriadoRepository repo, DepartamentoRepository depRepo, CalendarioService calendario) {
+        this.repo = repo; this.depRepo = depRepo; this.calendario = calendario;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> criar(@RequestBody @Valid FeriadoCreateDTO dto) {
+        Departamento dep = null;
+        if (dto.departamentoId() != null) {
+            dep = depRepo.findById(dto.departamentoId()).orElse(null);
+            if (dep == null) return ResponseEntity.badRequest().body("Departamento não encontrado");
+        }
+
+        Feriado f = new Feriado();
+        f.setData(dto.data());
+        f.setDescricao(dto.descricao());
+        f.setDepartamento(dep);
+        f = repo.save(f);
+        calendario.invalidar();
+
+        return ResponseEntity.created(URI.create("/feriados/" + f.getId())).body(DtoMapper.toDTO(f));
+    }
+
+    @GetMapping
+    public List<FeriadoDTO> listar(@RequestParam int ano) {
+        return repo.findByDataBetweenOrderByDataAsc(LocalDate.ofYearDay(ano, 1), LocalDate.of(ano, 12, 31))
+                .stream().map(DtoMapper::toDTO).toList();
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> remover(@PathVariable Long id) {
+        if (!repo.existsById(id)) return ResponseEntity.notFound().build();
+        repo.deleteById(id);
+        calendario.invalidar();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -6,6 +6,7 @@ import com.seuprojeto.rhapi.dto.JornadaTrabalhoDTO;
 import com.seuprojeto.rhapi.mapper.DtoMapper;
 import com.seuprojeto.rhapi.repository.ColaboradorRepository;
 import com.seuprojeto.rhapi.repository.JornadaTrabalhoRepository;
+import com.seuprojeto.rhapi.service.JornadaCache;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,9 +17,11 @@ public class JornadaTrabalhoController {
 
     private final JornadaTrabalhoRepository repo;
     private final ColaboradorRepository colabRepo;
+    private final JornadaCache jornadaCache;
 
-    public JornadaTrabalhoController(JornadaTrabalhoRepository repo, ColaboradorRepository colabRepo) {
-        this.repo = repo; this.colabRepo = colabRepo;
+    public JornadaTrabalhoController(JornadaTrabalhoRepository repo, ColaboradorRepository colabRepo,
+                                     JornadaCache jornadaCache) {
+        this.repo = repo; this.colabRepo = colabRepo; this.jornadaCache = jornadaCache;
     }
 
     @PostMapping
@@ -37,9 +40,15 @@ public class JornadaTrabalhoController {
         j.setMinutosDom(dto.minutosDom());
 
         j = repo.save(j);
+        jornadaCache.atualizar(j); // save já fez o commit
         return ResponseEntity.ok(DtoMapper.toDTO(j));
     }
 
+    @GetMapping("/cache")
+    public JornadaCache.Metricas metricasCache() {
+        return jornadaCache.metricas();
+    }
+
     @GetMapping("/{colaboradorId}")
     public ResponseEntity<?> obter(@PathVariable Long colaboradorId) {
         return repo.findByColaborador_Id(colaboradorId)
@@ -3,41 +3,91 @@ package com.seuprojeto.rhapi.controller;
 import com.seuprojeto.rhapi.domain.Colaborador;
 import com.seuprojeto.rhapi.domain.RegistroPonto;
 import com.seuprojeto.rhapi.domain.enums.OrigemRegistro;
+import com.seuprojeto.rhapi.domain.enums.TipoMarcacao;
+import com.seuprojeto.rhapi.dto.EventoPontoDTO;
+import com.seuprojeto.rhapi.dto.PaginaDTO;
 import com.seuprojeto.rhapi.dto.RegistroPontoCreateDTO;
+import com.seuprojeto.rhapi.dto.RegistroPontoDTO;
+import com.seuprojeto.rhapi.mapper.DtoMapper;
 import com.seuprojeto.rhapi.repository.ColaboradorRepository;
+import com.seuprojeto.rhapi.repository.EventoPontoRepository;
 import com.seuprojeto.rhapi.repository.RegistroPontoRepository;
+import com.seuprojeto.rhapi.repository.projection.PontoDiaView;
+import com.seuprojeto.rhapi.security.CurrentUserService;
+import com.seuprojeto.rhapi.service.BancoHorasService;
+import com.seuprojeto.rhapi.service.FilaBatidasService;
+import com.seuprojeto.rhapi.service.IdempotenciaCache;
+import com.seuprojeto.rhapi.service.StatusDiaCache;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/pontos")
 public class RegistroPontoController {
 
     private static final ZoneId ZONE = ZoneId.of("America/Sao_Paulo");
+    private static final Set<String> PAPEIS_DEPARTAMENTO = Set.of("ROLE_GESTOR", "ROLE_RH", "ROLE_ADMIN");
+
+    private static final String[] MENSAGEM_BATIDA = {
+            null,
+            "Entrada registrada",
+            "Início do almoço registrado",
+            "Fim do almoço registrado",
+            "Saída registrada (dia completo)"
+    };
 
     private final RegistroPontoRepository repo;
     private final ColaboradorRepository colabRepo;
-
-    public RegistroPontoController(RegistroPontoRepository repo, ColaboradorRepository colabRepo) {
+    private final EventoPontoRepository eventoRepo;
+    private final BancoHorasService bancoHorasService;
+    private final FilaBatidasService filaBatidas;
+    private final IdempotenciaCache idempotencia;
+    private final StatusDiaCache statusDiaCache;
+    private final CurrentUserService currentUser;
+    private final TransactionTemplate tx;
+
+    public RegistroPontoController(RegistroPontoRepository repo,
+                                   ColaboradorRepository colabRepo,
+                                   EventoPontoRepository eventoRepo,
+                                   BancoHorasService bancoHorasService,
+                                   FilaBatidasService filaBatidas,
+                                   IdempotenciaCache idempotencia,
+                                   StatusDiaCache statusDiaCache,
+                                   CurrentUserService currentUser,
+                                   TransactionTemplate tx) {
         this.repo = repo;
         this.colabRepo = colabRepo;
+        this.eventoRepo = eventoRepo;
+        this.bancoHorasService = bancoHorasService;
+        this.filaBatidas = filaBatidas;
+        this.idempotencia = idempotencia;
+        this.statusDiaCache = statusDiaCache;
+        this.currentUser = currentUser;
+        this.tx = tx;
     }
 
     
      //  1) REGISTRO MANUAL (ADMIN/GESTOR)
 
     @PostMapping
+    @Transactional
     public ResponseEntity<?> criarManual(@RequestBody @Valid RegistroPontoCreateDTO dto) {
         Colaborador colab = colabRepo.findById(dto.colaboradorId()).orElse(null);
         if (colab == null) return ResponseEntity.badRequest().body("Colaborador não encontrado");
@@ -64,114 +114,164 @@ public class RegistroPontoController {
         r.setObservacao(dto.observacao());
 
         r = repo.save(r);
-        return ResponseEntity.created(URI.create("/pontos/" + r.getId())).body(r);
+        LocalTime[] marcas = { r.getHoraEntrada(), r.getInicioAlmoco(), r.getFimAlmoco(), r.getHoraSaida() };
+        for (int slot = 0; slot < marcas.length; slot++) {
+            if (marcas[slot] == null) continue;
+            eventoRepo.registrar(colab.getId(), r.getData(), marcas[slot], TipoMarcacao.values()[slot].name(),
+                    r.getOrigem().name(), null, null);
+        }
+        bancoHorasService.aplicarVariacaoDia(colab.getId(), r.getData(), 0, BancoHorasService.minutosTrabalhados(r));
+        filaBatidas.descartarEstado(colab.getId(), r.getData());
+        statusDiaCache.atualizar(colab.getId(), r.getData(), marcas);
+        return ResponseEntity.created(URI.create("/pontos/" + r.getId())).body(DtoMapper.toDTO(r));
     }
 
  
     //   2) LISTAR POR PERÍODO
      
+    // De um colaborador ou de um departamento (RegistroPontoDTO plano, colaborador só como id).
+    // Por cursor em (colaborador, data): o cursor é "colaboradorId_data" do último registro da página anterior.
+    // Por departamento, só GESTOR/RH/ADMIN.
     @GetMapping
-    public List<RegistroPonto> listar(@RequestParam Long colaboradorId,
-                                      @RequestParam LocalDate de,
-                                      @RequestParam LocalDate ate) {
-        return repo.findByColaborador_IdAndDataBetween(colaboradorId, de, ate);
+    public ResponseEntity<?> listar(@RequestParam(required = false) Long colaboradorId,
+                                    @RequestParam(required = false) Long departamentoId,
+                                    @RequestParam LocalDate de,
+                                    @RequestParam LocalDate ate,
+                                    @RequestParam(required = false) String cursor,
+                                    @RequestParam(required = false) Integer limite) {
+        if (colaboradorId == null && departamentoId == null)
+            return ResponseEntity.badRequest().body("Informe colaboradorId ou departamentoId");
+        // o departamento inteiro é visão de gestão, como /departamentos/*/banco-horas e /ferias/ocupacao
+        if (departamentoId != null && !podeListarDepartamento())
+            return ResponseEntity.status(403).body("Listagem por departamento restrita a GESTOR, RH ou ADMIN.");
+
+        CursorPonto c;
+        try {
+            c = cursor == null ? new CursorPonto(0, de.minusDays(1)) : CursorPonto.ler(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("cursor inválido");
+        }
+        int n = PaginaDTO.limite(limite);
+        List<RegistroPontoDTO> linhas = repo.pagina(colaboradorId, departamentoId, de, ate,
+                c.colaboradorId(), c.data(), Limit.of(n + 1));
+        return ResponseEntity.ok(PaginaDTO.de(linhas, n, r -> r, CursorPonto::de));
+    }
+
+    private static boolean podeListarDepartamento() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null) return false;
+        return auth.getAuthorities().stream().anyMatch(a -> PAPEIS_DEPARTAMENTO.contains(a.getAuthority()));
+    }
+
+    /** Cursor de GET /pontos: chave (colaboradorId, data) da última linha, no formato "colabId_data". */
+    record CursorPonto(long colaboradorId, LocalDate data) {
+
+        static String de(RegistroPontoDTO r) {
+            return r.colaboradorId() + "_" + r.data();
+        }
+
+        static CursorPonto ler(String cursor) {
+            int sep = cursor.indexOf('_');
+            if (sep <= 0) throw new IllegalArgumentException("cursor inválido");
+            try {
+                return new CursorPonto(Long.parseLong(cursor.substring(0, sep)), LocalDate.parse(cursor.substring(sep + 1)));
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("cursor inválido", e);
+            }
+        }
     }
 
     
      //  3) BOTÃO "BATER PONTO" (usa usuário logado)
      
     @PostMapping("/bater")
-    public ResponseEntity<?> bater(@RequestBody(required = false) BaterPontoReq req) {
+    public ResponseEntity<?> bater(@RequestBody(required = false) BaterPontoReq req,
+                                   @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (idempotencyKey == null || idempotencyKey.isBlank() || auth == null || auth.getName() == null) {
+            return baterPonto(req);
+        }
+        // retentativa com a mesma chave devolve a resposta original, sem tocar o banco
+        return idempotencia.executar(auth.getName() + "|" + idempotencyKey, () -> baterPonto(req));
+    }
+
+    private ResponseEntity<?> baterPonto(BaterPontoReq req) {
         // data padrão = hoje no fuso de São Paulo
         LocalDate data = (req != null && req.getData() != null) ? req.getData() : LocalDate.now(ZONE);
-        LocalTime agora = LocalTime.now(ZONE);
+        // TIME no MySQL guarda segundos; trunca para comparar com o que foi gravado
+        LocalTime agora = LocalTime.now(ZONE).truncatedTo(ChronoUnit.SECONDS);
 
-        Colaborador eu = getColaboradorAutenticado();
+        Long eu = currentUser.getColaboradorId().orElse(null);
         if (eu == null) return ResponseEntity.status(401).body("Usuário não autenticado");
 
-        // busca (ou cria) o registro do dia
-        Optional<RegistroPonto> opt = repo.findByColaborador_IdAndData(eu.getId(), data);
-        RegistroPonto r = opt.orElseGet(() -> {
-            RegistroPonto n = new RegistroPonto();
-            n.setColaborador(eu);
-            n.setData(data);
-            n.setOrigem(OrigemRegistro.WEB);
-            return n;
-        });
-
-        // decide a próxima batida
-        if (r.getHoraEntrada() == null) {
-            // 1ª batida: entrada
-            r.setHoraEntrada(agora);
-            if (req != null) { r.setEntradaLat(req.getLat()); r.setEntradaLng(req.getLng()); }
-            r.setObservacao(joinObs(r.getObservacao(), "Entrada via botão"));
-            RegistroPonto salvo = repo.save(r);
-            return ResponseEntity.ok(Map.of(
-                    "mensagem", "Entrada registrada",
-                    "batidas", 1,
-                    "faltam", 3,
-                    "registroId", salvo.getId()
-            ));
+        // modo write-behind: valida em memória, enfileira e responde sem transação no MySQL
+        if (filaBatidas.ativo()) {
+            return baterViaFila(eu, data, agora, req);
         }
-
-        if (r.getInicioAlmoco() == null) {
-            // 2ª batida: início almoço (deve ser depois da entrada)
-            if (!agora.isAfter(r.getHoraEntrada())) {
-                return ResponseEntity.badRequest().body("Horário atual deve ser após a entrada.");
-            }
-            r.setInicioAlmoco(agora);
-            if (req != null) { r.setAlmocoIniLat(req.getLat()); r.setAlmocoIniLng(req.getLng()); }
-            r.setObservacao(joinObs(r.getObservacao(), "Início almoço via botão"));
-            RegistroPonto salvo = repo.save(r);
-            return ResponseEntity.ok(Map.of(
-                    "mensagem", "Início do almoço registrado",
-                    "batidas", 2,
-                    "faltam", 2,
-                    "registroId", salvo.getId()
-            ));
+        try {
+            return tx.<ResponseEntity<?>>execute(st -> baterSincrono(eu, data, agora, req));
+        } catch (RuntimeException e) {
+            // transação desfeita: o dia em cache pode ter sido atualizado antes do rollback
+            statusDiaCache.invalidar(eu, data);
+            throw e;
         }
+    }
 
-        if (r.getFimAlmoco() == null) {
-            // 3ª batida: fim almoço (deve ser depois do início do almoço)
-            if (r.getInicioAlmoco() == null) {
-                return ResponseEntity.status(409).body("Início do almoço não registrado.");
-            }
-            if (!agora.isAfter(r.getInicioAlmoco())) {
-                return ResponseEntity.badRequest().body("Horário atual deve ser após o início do almoço.");
+    private ResponseEntity<?> baterViaFila(Long eu, LocalDate data, LocalTime agora, BaterPontoReq req) {
+        var res = filaBatidas.registrar(eu, data, agora,
+                req != null ? req.getLat() : null,
+                req != null ? req.getLng() : null);
+        if (!res.aceita()) return ResponseEntity.status(res.status()).body(res.erro());
+        // enquanto houver estado na fila, o status-dia é servido por ela
+        statusDiaCache.invalidar(eu, data);
+
+        return ResponseEntity.ok(Map.of(
+                "mensagem", MENSAGEM_BATIDA[res.batidas()],
+                "batidas", res.batidas(),
+                "faltam", 4 - res.batidas(),
+                "pendente", true
+        ));
+    }
+
+    /**
+     * Transição atômica: um único INSERT ... ON DUPLICATE KEY UPDATE reivindica o próximo slot vazio.
+     * Toques simultâneos ou retentativas não duplicam marcação nem violam uk_ponto_colab_data.
+     */
+    private ResponseEntity<?> baterSincrono(Long eu, LocalDate data, LocalTime agora, BaterPontoReq req) {
+        int afetados = repo.baterProximaMarcacao(eu, data, agora,
+                req != null ? req.getLat() : null,
+                req != null ? req.getLng() : null);
+
+        PontoDiaView r = repo.findMarcacoesNoPeriodo(eu, data, data).get(0);
+        LocalTime[] marcas = { r.getHoraEntrada(), r.getInicioAlmoco(), r.getFimAlmoco(), r.getHoraSaida() };
+        int batidas = 0;
+        while (batidas < marcas.length && marcas[batidas] != null) batidas++;
+        statusDiaCache.atualizar(eu, data, marcas);
+
+        // o último marco não é o horário desta batida: nada foi reivindicado
+        if (!agora.equals(marcas[batidas - 1])) {
+            if (batidas == 4) {
+                return ResponseEntity.unprocessableEntity().body("As 4 batidas do dia já foram registradas.");
             }
-            r.setFimAlmoco(agora);
-            if (req != null) { r.setAlmocoFimLat(req.getLat()); r.setAlmocoFimLng(req.getLng()); }
-            r.setObservacao(joinObs(r.getObservacao(), "Fim almoço via botão"));
-            RegistroPonto salvo = repo.save(r);
-            return ResponseEntity.ok(Map.of(
-                    "mensagem", "Fim do almoço registrado",
-                    "batidas", 3,
-                    "faltam", 1,
-                    "registroId", salvo.getId()
-            ));
+            return ResponseEntity.badRequest().body(FilaBatidasService.mensagemErroOrdem(batidas));
         }
 
-        if (r.getHoraSaida() == null) {
-            // 4ª batida: saída (deve ser depois do último marco)
-            LocalTime referencia = r.getFimAlmoco() != null ? r.getFimAlmoco()
-                    : (r.getInicioAlmoco() != null ? r.getInicioAlmoco() : r.getHoraEntrada());
-            if (!agora.isAfter(referencia)) {
-                return ResponseEntity.badRequest().body("Horário atual deve ser após o último marco do dia.");
-            }
-            r.setHoraSaida(agora);
-            if (req != null) { r.setSaidaLat(req.getLat()); r.setSaidaLng(req.getLng()); }
-            r.setObservacao(joinObs(r.getObservacao(), "Saída via botão"));
-            RegistroPonto salvo = repo.save(r);
-            return ResponseEntity.ok(Map.of(
-                    "mensagem", "Saída registrada (dia completo)",
-                    "batidas", 4,
-                    "faltam", 0,
-                    "registroId", salvo.getId()
-            ));
+        eventoRepo.registrar(eu, data, agora, TipoMarcacao.values()[batidas - 1].name(), OrigemRegistro.WEB.name(),
+                req != null ? req.getLat() : null,
+                req != null ? req.getLng() : null);
+
+        if (batidas == 4 && afetados == 2) {
+            // só a saída fecha o dia: antes dela o trabalhado do dia é 0
+            bancoHorasService.aplicarVariacaoDia(eu, data, 0, BancoHorasService.minutosTrabalhados(
+                    marcas[0], marcas[1], marcas[2], marcas[3]));
         }
 
-        // já tem as 4 batidas
-        return ResponseEntity.unprocessableEntity().body("As 4 batidas do dia já foram registradas.");
+        return ResponseEntity.ok(Map.of(
+                "mensagem", MENSAGEM_BATIDA[batidas],
+                "batidas", batidas,
+                "faltam", 4 - batidas,
+                "registroId", r.getId()
+        ));
     }
 
     
@@ -181,50 +281,56 @@ public class RegistroPontoController {
     public ResponseEntity<?> statusDia(@RequestParam(required = false) LocalDate data) {
         LocalDate dia = (data != null) ? data : LocalDate.now(ZONE);
 
-        Colaborador eu = getColaboradorAutenticado();
+        Long eu = currentUser.getColaboradorId().orElse(null);
         if (eu == null) return ResponseEntity.status(401).body("Usuário não autenticado");
 
-        Optional<RegistroPonto> opt = repo.findByColaborador_IdAndData(eu.getId(), dia);
-        if (opt.isEmpty()) {
-            return ResponseEntity.ok(new StatusDiaResp(dia, 0, 4, null, null, null, null));
+        // write-behind: o estado em memória já inclui as batidas ainda não gravadas
+        Optional<LocalTime[]> emMemoria = filaBatidas.ativo()
+                ? filaBatidas.marcacoes(eu, dia)
+                : Optional.empty();
+        if (emMemoria.isPresent()) {
+            LocalTime[] m = emMemoria.get();
+            int batidas = 0;
+            for (LocalTime t : m) if (t != null) batidas++;
+            return ResponseEntity.ok(new StatusDiaResp(dia, batidas, 4 - batidas, m[0], m[1], m[2], m[3]));
         }
-        RegistroPonto r = opt.get();
 
+        // demais casos: cache local do dia (primitivos), carregado do banco só na primeira leitura
+        LocalTime[] m = statusDiaCache.marcacoes(eu, dia);
         int batidas = 0;
-        if (r.getHoraEntrada() != null) batidas++;
-        if (r.getInicioAlmoco() != null) batidas++;
-        if (r.getFimAlmoco() != null) batidas++;
-        if (r.getHoraSaida() != null) batidas++;
+        for (LocalTime t : m) if (t != null) batidas++;
         int faltam = Math.max(0, 4 - batidas);
 
-        return ResponseEntity.ok(new StatusDiaResp(
-                dia,
-                batidas,
-                faltam,
-                r.getHoraEntrada(),
-                r.getInicioAlmoco(),
-                r.getFimAlmoco(),
-                r.getHoraSaida()
-        ));
+        return ResponseEntity.ok(new StatusDiaResp(dia, batidas, faltam, m[0], m[1], m[2], m[3]));
+    }
+
+    @GetMapping("/status-dia/cache")
+    public StatusDiaCache.Metricas metricasStatusDia() {
+        return statusDiaCache.metricas();
     }
 
     
-     //  Helpers / DTOs internos
-       
+    //   5) AUDITORIA: batidas como foram registradas (log somente-inserção)
+
+    @GetMapping("/eventos")
+    public List<EventoPontoDTO> eventos(@RequestParam Long colaboradorId,
+                                        @RequestParam LocalDate de,
+                                        @RequestParam LocalDate ate) {
+        return eventoRepo.findByColaboradorIdAndDataBetweenOrderByDataAscHoraAscIdAsc(colaboradorId, de, ate)
+                .stream().map(DtoMapper::toDTO).toList();
+    }
 
-    private Colaborador getColaboradorAutenticado() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || auth.getName() == null) return null;
-        String email = auth.getName();
+    
+    //   6) MÉTRICAS DA FILA WRITE-BEHIND (profundidade, latência e tamanho dos lotes)
 
-        
-        return colabRepo.findByEmailIgnoreCase(email).orElse(null);
+    @GetMapping("/fila")
+    public FilaBatidasService.Metricas metricasFila() {
+        return filaBatidas.metricas();
     }
 
-    private static String joinObs(String atual, String novo) {
-        if (atual == null || atual.isBlank()) return novo;
-        return atual + " | " + novo;
-    }
+
+     //  Helpers / DTOs internos
+       
 
     // DTO do botão "BATER PONTO"
     public static class BaterPontoReq {
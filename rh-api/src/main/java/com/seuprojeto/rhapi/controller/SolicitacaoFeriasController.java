@@ -3,29 +3,51 @@ package com.seuprojeto.rhapi.controller;
 import com.seuprojeto.rhapi.domain.Colaborador;
 import com.seuprojeto.rhapi.domain.SolicitacaoFerias;
 import com.seuprojeto.rhapi.domain.enums.StatusFerias;
+import com.seuprojeto.rhapi.dto.AlteracaoStatusFeriasDTO;
+import com.seuprojeto.rhapi.dto.PaginaDTO;
 import com.seuprojeto.rhapi.dto.SolicitacaoFeriasCreateDTO;
 import com.seuprojeto.rhapi.dto.SolicitacaoFeriasDTO;
 import com.seuprojeto.rhapi.mapper.DtoMapper;
 import com.seuprojeto.rhapi.repository.ColaboradorRepository;
 import com.seuprojeto.rhapi.repository.SolicitacaoFeriasRepository;
+import com.seuprojeto.rhapi.service.BancoHorasService;
+import com.seuprojeto.rhapi.service.OcupacaoFeriasService;
+import com.seuprojeto.rhapi.service.SaldoFeriasService;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/ferias")
 public class SolicitacaoFeriasController {
 
+    private static final Logger log = LoggerFactory.getLogger(SolicitacaoFeriasController.class);
+
     private final SolicitacaoFeriasRepository repo;
     private final ColaboradorRepository colabRepo;
+    private final BancoHorasService bancoHoras;
+    private final SaldoFeriasService saldoFerias;
+    private final OcupacaoFeriasService ocupacao;
 
     public SolicitacaoFeriasController(SolicitacaoFeriasRepository repo,
-                                       ColaboradorRepository colabRepo) {
-        this.repo = repo; this.colabRepo = colabRepo;
+                                       ColaboradorRepository colabRepo,
+                                       BancoHorasService bancoHoras,
+                                       SaldoFeriasService saldoFerias,
+                                       OcupacaoFeriasService ocupacao) {
+        this.repo = repo; this.colabRepo = colabRepo; this.bancoHoras = bancoHoras;
+        this.saldoFerias = saldoFerias; this.ocupacao = ocupacao;
     }
 
     @PostMapping
@@ -51,15 +73,51 @@ public class SolicitacaoFeriasController {
         s.setDias((int) diasCalc);
         s.setMotivo(dto.motivo());
 
-        s = repo.save(s);
+        s = saldoFerias.criar(s);
+        ocupacao.registrar(s);
         return ResponseEntity.created(URI.create("/ferias/" + s.getId()))
                 .body(DtoMapper.toDTO(s));
     }
 
+    /** Lista por cursor (ordem de id); de/ate trazem as solicitações que cruzam o período. */
     @GetMapping
-    public List<SolicitacaoFeriasDTO> listar(@RequestParam(required = false) Long colaboradorId) {
-        return (colaboradorId == null ? repo.findAll() : repo.findByColaborador_Id(colaboradorId))
-                .stream().map(DtoMapper::toDTO).toList();
+    public PaginaDTO<SolicitacaoFeriasDTO> listar(@RequestParam(required = false) Long colaboradorId,
+                                                  @RequestParam(required = false) Long departamentoId,
+                                                  @RequestParam(required = false) StatusFerias status,
+                                                  @RequestParam(required = false) LocalDate de,
+                                                  @RequestParam(required = false) LocalDate ate,
+                                                  @RequestParam(required = false) Long cursor,
+                                                  @RequestParam(required = false) Integer limite) {
+        int n = PaginaDTO.limite(limite);
+        var linhas = repo.pagina(colaboradorId, departamentoId, status, de, ate,
+                cursor == null ? 0 : cursor, Limit.of(n + 1));
+        return PaginaDTO.de(linhas, n, s -> s, s -> s.id().toString());
+    }
+
+    /** Ausentes (APROVADA) e pendentes (CRIADA) por dia, para decidir aprovações. */
+    @GetMapping("/ocupacao")
+    public ResponseEntity<?> ocupacao(@RequestParam Long departamentoId,
+                                      @RequestParam LocalDate de,
+                                      @RequestParam LocalDate ate) {
+        try {
+            return ResponseEntity.ok(ocupacao.ocupacao(departamentoId, de, ate));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    /** Dias em que ficam menos de {@code minimo} presentes no departamento. */
+    @GetMapping("/ocupacao/cobertura")
+    public ResponseEntity<?> cobertura(@RequestParam Long departamentoId,
+                                       @RequestParam LocalDate de,
+                                       @RequestParam LocalDate ate,
+                                       @RequestParam int minimo,
+                                       @RequestParam(defaultValue = "false") boolean considerarPendentes) {
+        try {
+            return ResponseEntity.ok(ocupacao.diasAbaixoDe(departamentoId, de, ate, minimo, considerarPendentes));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
     }
 
     @PatchMapping("/{id}/aprovar")
@@ -73,9 +131,70 @@ public class SolicitacaoFeriasController {
     }
 
     private ResponseEntity<?> alterarStatus(Long id, StatusFerias novo) {
-        return repo.findById(id).map(s -> {
-            s.setStatus(novo);
-            return ResponseEntity.ok(DtoMapper.toDTO(repo.save(s)));
+        return saldoFerias.alterarStatus(id, novo).map(a -> {
+            boolean mudaPrevisto = (a.anterior() == StatusFerias.APROVADA) != (novo == StatusFerias.APROVADA);
+            if (mudaPrevisto) recalcularBanco(List.of(a.solicitacao()));
+            ocupacao.registrar(a.solicitacao());
+            return ResponseEntity.ok(DtoMapper.toDTO(a.solicitacao()));
         }).orElseGet(() -> ResponseEntity.notFound().build());
     }
+
+    /**
+     * Aprovação/reprovação em lote: um round trip, resultado por id (ALTERADA, SEM_ALTERACAO,
+     * NAO_ENCONTRADA, CONFLITO). Ids com problema não impedem os demais.
+     */
+    @PatchMapping("/status")
+    public ResponseEntity<?> alterarStatusEmLote(@RequestBody @Valid AlteracaoStatusFeriasDTO dto) {
+        if (dto.status() != StatusFerias.APROVADA && dto.status() != StatusFerias.REPROVADA)
+            return ResponseEntity.badRequest().body("status deve ser APROVADA ou REPROVADA");
+
+        var lote = saldoFerias.alterarStatusEmLote(dto.ids(), dto.status());
+
+        List<SolicitacaoFerias> mudamPrevisto = new ArrayList<>();
+        for (var a : lote.alteradas()) {
+            if ((a.anterior() == StatusFerias.APROVADA) != (dto.status() == StatusFerias.APROVADA))
+                mudamPrevisto.add(a.solicitacao());
+            ocupacao.registrar(a.solicitacao());
+        }
+        recalcularBanco(mudamPrevisto);
+        return ResponseEntity.ok(lote.resultados());
+    }
+
+    /**
+     * Dias de férias aprovadas não contam como previstos: ao aprovar (ou desfazer a aprovação),
+     * recalcula o banco de horas das competências do período que já começaram
+     * (uma vez por colaborador e competência, mesmo com várias solicitações no mês).
+     *
+     * Roda depois do commit da troca de status, fora daquela transação: cada (colaborador, competência)
+     * é um recalcularSaldoMensal na sua própria transação, com cerca de 6 comandos. Se um deles falhar,
+     * as férias continuam gravadas e o banco daquela competência fica desatualizado até
+     * POST /banco-horas/recalcular ou o próximo fechamento mensal; a falha vai para o log com o par.
+     */
+    private void recalcularBanco(List<SolicitacaoFerias> solicitacoes) {
+        YearMonth atual = YearMonth.now();
+        Set<Competencia> alvo = new LinkedHashSet<>();
+        for (SolicitacaoFerias s : solicitacoes) {
+            YearMonth ultima = YearMonth.from(s.getDataFim());
+            for (YearMonth m = YearMonth.from(s.getDataInicio()); !m.isAfter(ultima) && !m.isAfter(atual); m = m.plusMonths(1)) {
+                alvo.add(new Competencia(s.getColaborador().getId(), m));
+            }
+        }
+        if (alvo.isEmpty()) return;
+
+        long ini = System.nanoTime();
+        int falhas = 0;
+        for (Competencia c : alvo) {
+            try {
+                bancoHoras.recalcularSaldoMensal(c.colaboradorId(), c.mes());
+            } catch (RuntimeException e) {
+                falhas++;
+                log.error("Banco de horas do colaborador {} em {} não recalculado após alterar férias; "
+                        + "reconciliar com POST /banco-horas/recalcular", c.colaboradorId(), c.mes(), e);
+            }
+        }
+        log.info("Banco de horas recalculado após alterar férias: {} competência(s), {} com falha, em {} ms",
+                alvo.size(), falhas, (System.nanoTime() - ini) / 1_000_000);
+    }
+
+    private record Competencia(Long colaboradorId, YearMonth mes) {}
 }
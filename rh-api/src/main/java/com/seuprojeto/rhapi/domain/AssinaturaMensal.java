@@ -18,12 +18,15 @@ import java.time.LocalDateTime;
 )
 public class AssinaturaMensal extends AuditableBase {
 
+    // ids em blocos de 50 (V19): permite lote JDBC nas inserções
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "assinatura_id")
+    @TableGenerator(name = "assinatura_id", table = "id_geradores", pkColumnName = "entidade",
+            valueColumnName = "proximo", pkColumnValue = "assinaturas_mensais", allocationSize = 50)
     private Long id;
 
     /** Colaborador responsável pela assinatura */
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "colaborador_id", nullable = false)
     private Colaborador colaborador;
 
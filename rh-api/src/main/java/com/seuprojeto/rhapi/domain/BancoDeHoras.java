@@ -8,7 +8,7 @@ public class BancoDeHoras extends AuditableBase {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "colaborador_id")
     private Colaborador colaborador;
 
@@ -18,6 +18,10 @@ public class BancoDeHoras extends AuditableBase {
     @Column(name = "saldo_minutos", nullable = false)
     private int saldoMinutos = 0;
 
+    // soma dos saldos do colaborador até esta competência (inclusive)
+    @Column(name = "saldo_acumulado_minutos", nullable = false)
+    private int saldoAcumuladoMinutos = 0;
+
     public Long getId() { return id; }
     public Colaborador getColaborador() { return colaborador; }
     public void setColaborador(Colaborador colaborador) { this.colaborador = colaborador; }
@@ -25,4 +29,6 @@ public class BancoDeHoras extends AuditableBase {
     public void setCompetencia(String competencia) { this.competencia = competencia; }
     public int getSaldoMinutos() { return saldoMinutos; }
     public void setSaldoMinutos(int saldoMinutos) { this.saldoMinutos = saldoMinutos; }
+    public int getSaldoAcumuladoMinutos() { return saldoAcumuladoMinutos; }
+    public void setSaldoAcumuladoMinutos(int saldoAcumuladoMinutos) { this.saldoAcumuladoMinutos = saldoAcumuladoMinutos; }
 }
@@ -1,12 +1,16 @@
 package com.seuprojeto.rhapi.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 import com.seuprojeto.rhapi.domain.enums.Role;
+import com.seuprojeto.rhapi.security.ColaboradorCacheListener;
+import com.seuprojeto.rhapi.service.ColaboradorOcupacaoListener;
 
 
 @Entity
 @Table(name = "colaboradores")
+@EntityListeners({ ColaboradorCacheListener.class, ColaboradorOcupacaoListener.class })
 public class Colaborador extends AuditableBase {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -29,10 +33,11 @@ public class Colaborador extends AuditableBase {
     @Column(name = "data_admissao", nullable = false)
     private LocalDate dataAdmissao;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "departamento_id")
     private Departamento departamento;
 
+    @JsonIgnore // nunca sai em JSON, mesmo que a entidade chegue a ser serializada
     @Column(name = "senha_hash", length = 100)
 private String senhaHash;
 
@@ -40,6 +45,19 @@ private String senhaHash;
 @Column(name = "papel", nullable = false)
 private Role papel = Role.COLABORADOR;
 
+    // departamento e ativo como lidos/gravados por último: os listeners (chamados antes deste callback) veem o que mudou
+    @Transient private Long departamentoIdGravado;
+    @Transient private Boolean ativoGravado;
+
+    @PostLoad @PostPersist @PostUpdate
+    void guardarEstadoGravado() {
+        this.departamentoIdGravado = departamento == null ? null : departamento.getId();
+        this.ativoGravado = ativo;
+    }
+
+    public Long getDepartamentoIdGravado() { return departamentoIdGravado; }
+    public Boolean getAtivoGravado() { return ativoGravado; }
+
 public String getSenhaHash() { return senhaHash; }
 public void setSenhaHash(String senhaHash) { this.senhaHash = senhaHash; }
 public Role getPapel() { return papel; }
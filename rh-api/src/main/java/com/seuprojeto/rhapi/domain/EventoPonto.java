@@ -0,0 +1,59 @@
+package com.seuprojeto.rhapi.domain;
+
+import com.seuprojeto.rhapi.domain.enums.OrigemRegistro;
+import com.seuprojeto.rhapi.domain.enums.TipoMarcacao;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Batida registrada (somente inserção). As gravações usam um único SQL nativo
+ * (EventoPontoRepository.SQL_REGISTRAR, pelo repositório e pelos lotes JDBC); a entidade serve à
+ * consulta de auditoria.
+ * Custo: cada batida passa a ser duas escritas na mesma transação, o INSERT aqui (com os índices
+ * uk_evento_id e uk_evento_marcacao) e o upsert do dia em registros_ponto. O log é o preço da
+ * auditoria e do replay idempotente; a leitura do dia continua numa linha só de registros_ponto.
+ */
+@Entity
+@Immutable
+@Table(name = "eventos_ponto")
+public class EventoPonto {
+    @Id
+    private Long id;
+
+    @Column(name = "colaborador_id", nullable = false)
+    private Long colaboradorId;
+
+    @Column(nullable = false)
+    private LocalDate data;
+
+    @Column(nullable = false)
+    private LocalTime hora;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoMarcacao tipo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OrigemRegistro origem;
+
+    @Column private Double lat;
+    @Column private Double lng;
+
+    @Column(name = "created_at", nullable = false, insertable = false, updatable = false)
+    private Instant createdAt;
+
+    public Long getId() { return id; }
+    public Long getColaboradorId() { return colaboradorId; }
+    public LocalDate getData() { return data; }
+    public LocalTime getHora() { return hora; }
+    public TipoMarcacao getTipo() { return tipo; }
+    public OrigemRegistro getOrigem() { return origem; }
+    public Double getLat() { return lat; }
+    public Double getLng() { return lng; }
+    public Instant getCreatedAt() { return createdAt; }
+}
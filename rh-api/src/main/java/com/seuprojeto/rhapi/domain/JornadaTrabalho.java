@@ -8,7 +8,7 @@ public class JornadaTrabalho extends AuditableBase {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne(optional = false)
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "colaborador_id", unique = true)
     private Colaborador colaborador;
 
@@ -21,7 +21,7 @@ public class RegistroPonto extends AuditableBase {
     @Column private Double saidaLat;
     @Column private Double saidaLng;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "colaborador_id")
     private Colaborador colaborador;
 
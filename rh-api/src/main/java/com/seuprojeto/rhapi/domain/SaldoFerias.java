@@ -0,0 +1,27 @@
+package com.seuprojeto.rhapi.domain;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Contadores de férias do colaborador. As gravações são deltas atômicos por SQL nativo
+ * (SaldoFeriasService.SQL_SOMAR); a entidade serve só à leitura.
+ */
+@Entity
+@Immutable
+@Table(name = "saldos_ferias")
+public class SaldoFerias {
+    @Id
+    @Column(name = "colaborador_id")
+    private Long colaboradorId;
+
+    @Column(name = "dias_pendentes", nullable = false)
+    private int diasPendentes;
+
+    @Column(name = "dias_aprovados", nullable = false)
+    private int diasAprovados;
+
+    public Long getColaboradorId() { return colaboradorId; }
+    public int getDiasPendentes() { return diasPendentes; }
+    public int getDiasAprovados() { return diasAprovados; }
+}
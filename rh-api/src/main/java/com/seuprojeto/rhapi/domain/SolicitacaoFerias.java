@@ -7,10 +7,14 @@ import java.time.LocalDate;
 @Entity
 @Table(name = "solicitacoes_ferias")
 public class SolicitacaoFerias extends AuditableBase {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // ids em blocos de 50 (V19): permite lote JDBC nas inserções
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "ferias_id")
+    @TableGenerator(name = "ferias_id", table = "id_geradores", pkColumnName = "entidade",
+            valueColumnName = "proximo", pkColumnValue = "solicitacoes_ferias", allocationSize = 50)
     private Long id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "colaborador_id")
     private Colaborador colaborador;
 
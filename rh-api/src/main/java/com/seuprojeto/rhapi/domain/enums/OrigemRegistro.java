@@ -1,5 +1,5 @@
 package com.seuprojeto.rhapi.domain.enums;
 
 public enum OrigemRegistro {
-    APP, WEB, MANUAL
+    APP, WEB, MANUAL, REP
 }
@@ -0,0 +1,6 @@
+package com.seuprojeto.rhapi.domain.enums;
+
+/** Slots do dia, na ordem em que são preenchidos. */
+public enum TipoMarcacao {
+    ENTRADA, INICIO_ALMOCO, FIM_ALMOCO, SAIDA
+}
@@ -0,0 +1,14 @@
+package com.seuprojeto.rhapi.dto;
+
+import com.seuprojeto.rhapi.domain.enums.StatusFerias;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/** PATCH /ferias/status: mesmo status (APROVADA ou REPROVADA) para várias solicitações. */
+public record AlteracaoStatusFeriasDTO(
+        @NotEmpty @Size(max = 1000) List<@NotNull Long> ids,
+        @NotNull StatusFerias status
+) {}
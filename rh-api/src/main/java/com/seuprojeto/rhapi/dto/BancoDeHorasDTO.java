@@ -7,6 +7,7 @@ public record BancoDeHorasDTO(
         Long colaboradorId,
         String competencia, // YYYY-MM
         int saldoMinutos,
+        int saldoAcumuladoMinutos,
         Instant createdAt,
         Instant updatedAt
 ) {}
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.seuprojeto.rhapi.dto;
+
+import java.time.LocalDate;
+
+public record DiaCoberturaDTO(
+        LocalDate data,
+        long presentes,
+        int ausentes,
+        int pendentes
+) {}
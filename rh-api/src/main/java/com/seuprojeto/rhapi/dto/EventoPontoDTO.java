@@ -0,0 +1,19 @@
+package com.seuprojeto.rhapi.dto;
+
+import com.seuprojeto.rhapi.domain.enums.OrigemRegistro;
+import com.seuprojeto.rhapi.domain.enums.TipoMarcacao;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public record EventoPontoDTO(
+        Long id,
+        Long colaboradorId,
+        LocalDate data,
+        LocalTime hora,
+        TipoMarcacao tipo,
+        OrigemRegistro origem,
+        Double lat,
+        Double lng,
+        Instant createdAt
+) {}
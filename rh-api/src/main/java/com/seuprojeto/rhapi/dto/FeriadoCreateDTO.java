@@ -0,0 +1,13 @@
+package com.seuprojeto.rhapi.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+
+public record FeriadoCreateDTO(
+        @NotNull LocalDate data,
+        @NotBlank @Size(max = 120) String descricao,
+        Long departamentoId   // opcional: nulo = todos os departamentos
+) {}
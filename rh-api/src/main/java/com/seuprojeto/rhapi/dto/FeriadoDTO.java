@@ -0,0 +1,10 @@
+package com.seuprojeto.rhapi.dto;
+
+import java.time.LocalDate;
+
+public record FeriadoDTO(
+        Long id,
+        LocalDate data,
+        String descricao,
+        Long departamentoId
+) {}
@@ -0,0 +1,12 @@
+package com.seuprojeto.rhapi.dto;
+
+public record HorasColaboradorDTO(
+        long colaboradorId,
+        String nome,
+        Long departamentoId,
+        String departamento,
+        int diasTrabalhados,
+        long trabalhadoMin,
+        long previstoMin,
+        long saldoMin
+) {}
@@ -0,0 +1,10 @@
+package com.seuprojeto.rhapi.dto;
+
+public record HorasDepartamentoDTO(
+        Long departamentoId,
+        String departamento,
+        long colaboradores,
+        long trabalhadoMin,
+        long previstoMin,
+        long saldoMin
+) {}
@@ -0,0 +1,16 @@
+package com.seuprojeto.rhapi.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Ocupação de férias do departamento no período, em colunas: a posição i é o dia {@code de + i}.
+ * colaboradores = ativos no departamento.
+ */
+public record OcupacaoFeriasDTO(
+        Long departamentoId,
+        LocalDate de,
+        LocalDate ate,
+        long colaboradores,
+        int[] ausentes,   // férias APROVADA
+        int[] pendentes   // solicitações CRIADA
+) {}
@@ -0,0 +1,33 @@
+package com.seuprojeto.rhapi.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de uma listagem por cursor (keyset): {@code proximoCursor} vai no parâmetro {@code cursor}
+ * da próxima chamada e é nulo na última página. O cursor é a chave da última linha devolvida,
+ * então cada página é uma busca pelo índice a partir dela, qualquer que seja a profundidade.
+ */
+public record PaginaDTO<T>(
+        List<T> itens,
+        String proximoCursor
+) {
+
+    public static final int LIMITE_PADRAO = 50;
+    public static final int LIMITE_MAXIMO = 500;
+
+    /** Tamanho de página pedido, limitado a 1..LIMITE_MAXIMO (LIMITE_PADRAO se ausente). */
+    public static int limite(Integer pedido) {
+        if (pedido == null) return LIMITE_PADRAO;
+        return Math.max(1, Math.min(LIMITE_MAXIMO, pedido));
+    }
+
+    /** Monta a página a partir de até {@code limite + 1} linhas: a linha extra só indica que há próxima. */
+    public static <E, T> PaginaDTO<T> de(List<E> linhas, int limite,
+                                         Function<E, T> mapear, Function<E, String> cursor) {
+        boolean haProxima = linhas.size() > limite;
+        List<E> pagina = haProxima ? linhas.subList(0, limite) : linhas;
+        return new PaginaDTO<>(pagina.stream().map(mapear).toList(),
+                haProxima ? cursor.apply(pagina.get(limite - 1)) : null);
+    }
+}
@@ -0,0 +1,21 @@
+package com.seuprojeto.rhapi.dto;
+
+/**
+ * Banco de horas de um departamento na competência, em colunas: a posição i de cada array
+ * é o mesmo colaborador (ordenados por nome). Minutos.
+ */
+public record PainelBancoHorasDTO(
+        Long departamentoId,
+        String departamento,
+        String competencia,
+        int colaboradores,
+        long[] colaboradorId,
+        String[] nome,
+        int[] trabalhadoMin,
+        int[] previstoMin,
+        int[] saldoMin,
+        int[] acumuladoMin,   // acumulado até o fim da competência
+        long totalTrabalhadoMin,
+        long totalPrevistoMin,
+        long totalSaldoMin
+) {}
@@ -0,0 +1,11 @@
+package com.seuprojeto.rhapi.dto;
+
+import java.util.List;
+
+public record RelatorioHorasDTO(
+        String competencia,
+        List<HorasDepartamentoDTO> departamentos,
+        long trabalhadoMin,   // empresa inteira
+        long previstoMin,
+        long saldoMin
+) {}
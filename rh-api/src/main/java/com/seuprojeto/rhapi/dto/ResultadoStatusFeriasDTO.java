@@ -0,0 +1,14 @@
+package com.seuprojeto.rhapi.dto;
+
+import com.seuprojeto.rhapi.domain.enums.StatusFerias;
+
+/**
+ * Resultado por id de PATCH /ferias/status.
+ * resultado: ALTERADA, SEM_ALTERACAO (já estava no status), NAO_ENCONTRADA ou CONFLITO (sobreposição).
+ */
+public record ResultadoStatusFeriasDTO(
+        Long id,
+        String resultado,
+        StatusFerias status,
+        String mensagem
+) {}
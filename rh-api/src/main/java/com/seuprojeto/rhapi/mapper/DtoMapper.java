@@ -2,6 +2,7 @@ package com.seuprojeto.rhapi.mapper;
 
 import com.seuprojeto.rhapi.domain.*;
 import com.seuprojeto.rhapi.dto.*;
+import com.seuprojeto.rhapi.repository.projection.ColaboradorView;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -37,6 +38,21 @@ public final class DtoMapper {
         );
     }
 
+    public static ColaboradorDTO toDTO(ColaboradorView v) {
+        return new ColaboradorDTO(
+                v.getId(),
+                v.getNome(),
+                v.getCpf(),
+                v.getEmail(),
+                v.getAtivo(),
+                v.getCargo(),
+                v.getDataAdmissao(),
+                new DepartamentoResumoDTO(v.getDepartamentoId(), v.getDepartamentoNome()),
+                v.getCreatedAt(),
+                v.getUpdatedAt()
+        );
+    }
+
     public static RegistroPontoDTO toDTO(RegistroPonto r) {
         return new RegistroPontoDTO(
                 r.getId(),
@@ -86,11 +102,35 @@ public final class DtoMapper {
                 b.getColaborador().getId(),
                 b.getCompetencia(),
                 b.getSaldoMinutos(),
+                b.getSaldoAcumuladoMinutos(),
                 b.getCreatedAt(),
                 b.getUpdatedAt()
         );
     }
 
+    public static EventoPontoDTO toDTO(EventoPonto e) {
+        return new EventoPontoDTO(
+                e.getId(),
+                e.getColaboradorId(),
+                e.getData(),
+                e.getHora(),
+                e.getTipo(),
+                e.getOrigem(),
+                e.getLat(),
+                e.getLng(),
+                e.getCreatedAt()
+        );
+    }
+
+    public static FeriadoDTO toDTO(Feriado f) {
+        return new FeriadoDTO(
+                f.getId(),
+                f.getData(),
+                f.getDescricao(),
+                f.getDepartamento() == null ? null : f.getDepartamento().getId()
+        );
+    }
+
     // ---------- MÉTODOS DE INSTÂNCIA (usados pelo ColaboradorController) ----------
     public ColaboradorDTO toColaboradorDTO(Colaborador c) {
         if (c == null) return null;
@@ -1,19 +1,64 @@
 package com.seuprojeto.rhapi.repository;
 
 import com.seuprojeto.rhapi.domain.BancoDeHoras;
+import com.seuprojeto.rhapi.repository.projection.AcumuladoView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface BancoDeHorasRepository extends JpaRepository<BancoDeHoras, Long> {
 
     Optional<BancoDeHoras> findByColaborador_IdAndCompetencia(Long colaboradorId, String competencia);
 
-    @Query("select coalesce(sum(b.saldoMinutos), 0) " +
-           "from BancoDeHoras b " +
-           "where b.colaborador.id = :colabId and b.competencia <= :competencia")
-    Integer sumSaldoAte(@Param("colabId") Long colaboradorId,
-                        @Param("competencia") String competencia);
+    /**
+     * Saldo acumulado até a competência (inclusive): a linha mais recente <= competência,
+     * lida pelo índice uk_banco_colab_comp. 0 se o colaborador ainda não tem banco.
+     */
+    @Query(value = """
+           SELECT saldo_acumulado_minutos
+             FROM bancos_horas
+            WHERE colaborador_id = :colabId AND competencia <= :competencia
+            ORDER BY competencia DESC
+            LIMIT 1
+           """, nativeQuery = true)
+    Optional<Integer> findSaldoAcumuladoAte(@Param("colabId") Long colaboradorId,
+                                            @Param("competencia") String competencia);
+
+    /**
+     * Saldo acumulado até a competência (inclusive) de todos os colaboradores ativos do departamento,
+     * em uma consulta; quem ainda não tem banco não aparece.
+     */
+    @Query(value = """
+           SELECT b.colaborador_id AS colaboradorId, b.saldo_acumulado_minutos AS acumuladoMin
+             FROM bancos_horas b
+             JOIN (SELECT bh.colaborador_id, MAX(bh.competencia) AS competencia
+                     FROM bancos_horas bh
+                     JOIN colaboradores c ON c.id = bh.colaborador_id
+                    WHERE c.departamento_id = :departamentoId AND c.ativo = TRUE
+                      AND bh.competencia <= :competencia
+                    GROUP BY bh.colaborador_id) u
+               ON u.colaborador_id = b.colaborador_id AND u.competencia = b.competencia
+           """, nativeQuery = true)
+    List<AcumuladoView> findSaldosAcumuladosAteDoDepartamento(@Param("departamentoId") Long departamentoId,
+                                                              @Param("competencia") String competencia);
+
+    /** Soma atômica de um delta ao saldo da competência. Retorna 0 se a linha ainda não existe. */
+    @Modifying
+    @Query("update BancoDeHoras b set b.saldoMinutos = b.saldoMinutos + :delta " +
+           "where b.colaborador.id = :colabId and b.competencia = :competencia")
+    int somarSaldo(@Param("colabId") Long colaboradorId,
+                   @Param("competencia") String competencia,
+                   @Param("delta") int delta);
+
+    /** Propaga uma variação de saldo ao acumulado desta competência e das seguintes (correções retroativas). */
+    @Modifying
+    @Query("update BancoDeHoras b set b.saldoAcumuladoMinutos = b.saldoAcumuladoMinutos + :delta " +
+           "where b.colaborador.id = :colabId and b.competencia >= :competencia")
+    int propagarAcumulado(@Param("colabId") Long colaboradorId,
+                          @Param("competencia") String competencia,
+                          @Param("delta") int delta);
 }
@@ -1,14 +1,51 @@
 package com.seuprojeto.rhapi.repository;
 
 import com.seuprojeto.rhapi.domain.Colaborador;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import com.seuprojeto.rhapi.domain.enums.Role;
+import com.seuprojeto.rhapi.repository.projection.ColaboradorView;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 import java.util.Optional;
 
 public interface ColaboradorRepository extends JpaRepository<Colaborador, Long> {
+
+    /** Colunas de ColaboradorView (uma junção com departamentos, sem entidades). */
+    String SELECT_VIEW = """
+            select c.id as id, c.nome as nome, c.cpf as cpf, c.email as email, c.ativo as ativo,
+                   c.cargo as cargo, c.dataAdmissao as dataAdmissao,
+                   d.id as departamentoId, d.nome as departamentoNome,
+                   c.createdAt as createdAt, c.updatedAt as updatedAt
+              from Colaborador c join c.departamento d
+            """;
+
     Optional<Colaborador> findByCpf(String cpf);
     Optional<Colaborador> findByEmailIgnoreCase(String email);
     Optional<Colaborador> findByEmail(String email);
     boolean existsByPapel(Role papel);
-    
+    long countByDepartamento_IdAndAtivoTrue(Long departamentoId);
+
+    /** Página por cursor (id > cursor), filtros opcionais; usa idx_colab_dep_ativo. */
+    @Query(SELECT_VIEW + """
+             where (:departamentoId is null or d.id = :departamentoId)
+               and (:ativo is null or c.ativo = :ativo)
+               and c.id > :cursor
+             order by c.id
+            """)
+    List<ColaboradorView> pagina(@Param("departamentoId") Long departamentoId,
+                             @Param("ativo") Boolean ativo,
+                             @Param("cursor") long cursor,
+                             Limit limite);
+
+    @Query(SELECT_VIEW + " where c.id = :id")
+    Optional<ColaboradorView> findViewById(@Param("id") Long id);
+
+    /** Colaborador com o departamento carregado, para uso fora de uma sessão aberta. */
+    @EntityGraph(attributePaths = "departamento")
+    Optional<Colaborador> findComDepartamentoById(Long id);
+
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.seuprojeto.rhapi.repository;
+
+import com.seuprojeto.rhapi.domain.EventoPonto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+public interface EventoPontoRepository extends JpaRepository<EventoPonto, Long> {
+
+    List<EventoPonto> findByColaboradorIdAndDataBetweenOrderByDataAscHoraAscIdAsc(Long colaboradorId,
+                                                                                  LocalDate de,
+                                                                                  LocalDate ate);
+
+    /**
+     * INSERT de uma batida no log; a mesma marcação (dia, tipo, hora) gravada de novo é ignorada.
+     * ON DUPLICATE KEY UPDATE em vez de INSERT IGNORE: só a duplicata vira no-op; FK, NOT NULL e
+     * truncamento continuam sendo erro. Único texto do INSERT: usado por {@link #registrar} e pelos
+     * lotes JDBC (fila write-behind e importação AFD). Parâmetros: colaborador_id, data, hora, tipo,
+     * origem, lat, lng.
+     */
+    String SQL_REGISTRAR = """
+            INSERT INTO eventos_ponto (colaborador_id, data, hora, tipo, origem, lat, lng)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE id = id
+            """;
+
+    /** Acrescenta uma batida ao log ({@link #SQL_REGISTRAR}); parâmetros na ordem das colunas. */
+    @Modifying
+    @Query(value = SQL_REGISTRAR, nativeQuery = true)
+    int registrar(Long colaboradorId,
+                  LocalDate data,
+                  LocalTime hora,
+                  String tipo,
+                  String origem,
+                  Double lat,
+                  Double lng);
+}
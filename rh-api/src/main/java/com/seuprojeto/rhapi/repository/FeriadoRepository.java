@@ -0,0 +1,11 @@
+package com.seuprojeto.rhapi.repository;
+
+import com.seuprojeto.rhapi.domain.Feriado;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface FeriadoRepository extends JpaRepository<Feriado, Long> {
+    List<Feriado> findByDataBetweenOrderByDataAsc(LocalDate de, LocalDate ate);
+}
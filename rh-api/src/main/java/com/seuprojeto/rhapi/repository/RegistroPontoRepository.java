@@ -1,15 +1,134 @@
 package com.seuprojeto.rhapi.repository;
 
 import com.seuprojeto.rhapi.domain.RegistroPonto;
+import com.seuprojeto.rhapi.dto.RegistroPontoDTO;
+import com.seuprojeto.rhapi.repository.projection.HorasColaboradorView;
+import com.seuprojeto.rhapi.repository.projection.PontoDiaView;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface RegistroPontoRepository extends JpaRepository<RegistroPonto, Long> {
-    List<RegistroPonto> findByColaborador_IdAndDataBetween(Long colaboradorId, LocalDate de, LocalDate ate);
+
+    /**
+     * Minutos trabalhados de uma linha de registros_ponto, em SQL, com as mesmas regras de
+     * BancoHorasService.minutosTrabalhados: dia sem entrada ou saída vale 0, o almoço só é
+     * descontado com início e fim, minutos truncados e nunca negativo.
+     * TIMESTAMPDIFF aceita colunas TIME (o MySQL completa com a data corrente).
+     */
+    String SQL_MINUTOS_DIA = """
+            CASE WHEN r.hora_entrada IS NULL OR r.hora_saida IS NULL THEN 0
+                 ELSE GREATEST(TIMESTAMPDIFF(MINUTE, r.hora_entrada, r.hora_saida)
+                               - IF(r.inicio_almoco IS NOT NULL AND r.fim_almoco IS NOT NULL,
+                                    TIMESTAMPDIFF(MINUTE, r.inicio_almoco, r.fim_almoco), 0), 0)
+            END""";
+
+    /** Trabalhado por colaborador no período (uma linha por colaborador com batidas). */
+    String SQL_TRABALHADO_POR_COLABORADOR = """
+            SELECT r.colaborador_id, COUNT(*) AS dias, SUM(""" + SQL_MINUTOS_DIA + """
+                  ) AS minutos
+              FROM registros_ponto r
+             WHERE r.data BETWEEN :de AND :ate
+             GROUP BY r.colaborador_id""";
+
+    /**
+     * Página por cursor em (colaborador, data) > (cursorColab, cursorData), de um colaborador ou de
+     * um departamento inteiro: a ordem é a de uk_ponto_colab_data, lida colaborador a colaborador.
+     * Só as colunas de RegistroPontoDTO; o colaborador entra apenas como id.
+     */
+    @Query("""
+           select new com.seuprojeto.rhapi.dto.RegistroPontoDTO(
+                  r.id, c.id, r.data, r.horaEntrada, r.inicioAlmoco, r.fimAlmoco, r.horaSaida,
+                  r.origem, r.observacao, r.createdAt, r.updatedAt)
+             from RegistroPonto r join r.colaborador c
+            where (:colabId is null or c.id = :colabId)
+              and (:departamentoId is null or c.departamento.id = :departamentoId)
+              and r.data between :de and :ate
+              and (c.id > :cursorColab or (c.id = :cursorColab and r.data > :cursorData))
+            order by c.id, r.data
+           """)
+    List<RegistroPontoDTO> pagina(@Param("colabId") Long colaboradorId,
+                                  @Param("departamentoId") Long departamentoId,
+                                  @Param("de") LocalDate de,
+                                  @Param("ate") LocalDate ate,
+                                  @Param("cursorColab") long cursorColab,
+                                  @Param("cursorData") LocalDate cursorData,
+                                  Limit limite);
     boolean existsByColaborador_IdAndData(Long colaboradorId, LocalDate data);
 
     Optional<RegistroPonto> findByColaborador_IdAndData(Long colaboradorId, LocalDate data);
+
+    /** Marcações do período em uma única consulta (sem join com colaborador/departamento). */
+    @Query("""
+           select r.id as id,
+                  r.data as data,
+                  r.horaEntrada as horaEntrada,
+                  r.inicioAlmoco as inicioAlmoco,
+                  r.fimAlmoco as fimAlmoco,
+                  r.horaSaida as horaSaida
+             from RegistroPonto r
+            where r.colaborador.id = :colabId
+              and r.data between :de and :ate
+           """)
+    List<PontoDiaView> findMarcacoesNoPeriodo(@Param("colabId") Long colaboradorId,
+                                              @Param("de") LocalDate de,
+                                              @Param("ate") LocalDate ate);
+
+    /**
+     * Batida do botão em um único comando: cria o dia com a entrada ou preenche o próximo slot vazio
+     * (início almoço → fim almoço → saída), desde que o horário seja posterior ao último marco.
+     * As atribuições do ON DUPLICATE KEY UPDATE são avaliadas da esquerda para a direita,
+     * por isso vão da saída para o início do almoço: cada condição enxerga os valores originais.
+     * Só as colunas do slot mudam; o histórico da batida vai para eventos_ponto.
+     * Retorna 2 quando uma linha existente foi alterada.
+     */
+    @Modifying
+    @Query(value = """
+           INSERT INTO registros_ponto (colaborador_id, data, hora_entrada, entrada_lat, entrada_lng, origem)
+           VALUES (:colabId, :data, :agora, :lat, :lng, 'WEB')
+           ON DUPLICATE KEY UPDATE
+             saida_lat      = IF(fim_almoco IS NOT NULL AND hora_saida IS NULL AND :agora > fim_almoco, :lat, saida_lat),
+             saida_lng      = IF(fim_almoco IS NOT NULL AND hora_saida IS NULL AND :agora > fim_almoco, :lng, saida_lng),
+             hora_saida     = IF(fim_almoco IS NOT NULL AND hora_saida IS NULL AND :agora > fim_almoco, :agora, hora_saida),
+             almoco_fim_lat = IF(inicio_almoco IS NOT NULL AND fim_almoco IS NULL AND :agora > inicio_almoco, :lat, almoco_fim_lat),
+             almoco_fim_lng = IF(inicio_almoco IS NOT NULL AND fim_almoco IS NULL AND :agora > inicio_almoco, :lng, almoco_fim_lng),
+             fim_almoco     = IF(inicio_almoco IS NOT NULL AND fim_almoco IS NULL AND :agora > inicio_almoco, :agora, fim_almoco),
+             almoco_ini_lat = IF(inicio_almoco IS NULL AND :agora > hora_entrada, :lat, almoco_ini_lat),
+             almoco_ini_lng = IF(inicio_almoco IS NULL AND :agora > hora_entrada, :lng, almoco_ini_lng),
+             inicio_almoco  = IF(inicio_almoco IS NULL AND :agora > hora_entrada, :agora, inicio_almoco)
+           """, nativeQuery = true)
+    int baterProximaMarcacao(@Param("colabId") Long colaboradorId,
+                             @Param("data") LocalDate data,
+                             @Param("agora") LocalTime agora,
+                             @Param("lat") Double lat,
+                             @Param("lng") Double lng);
+
+    /**
+     * Trabalhado por colaborador ativo no período, em uma consulta; :departamentoId nulo = empresa inteira.
+     * O previsto depende da jornada e do calendário (feriados, férias) e é calculado em BancoHorasService.
+     */
+    @Query(value = """
+           SELECT c.id AS colaboradorId,
+                  c.nome AS nome,
+                  c.departamento_id AS departamentoId,
+                  d.nome AS departamentoNome,
+                  CAST(COALESCE(t.dias, 0) AS SIGNED) AS diasTrabalhados,
+                  CAST(COALESCE(t.minutos, 0) AS SIGNED) AS trabalhadoMin
+             FROM colaboradores c
+             LEFT JOIN departamentos d ON d.id = c.departamento_id
+             LEFT JOIN (""" + SQL_TRABALHADO_POR_COLABORADOR + """
+                  ) t ON t.colaborador_id = c.id
+            WHERE c.ativo = TRUE
+              AND (:departamentoId IS NULL OR c.departamento_id = :departamentoId)
+            ORDER BY c.nome
+           """, nativeQuery = true)
+    List<HorasColaboradorView> totaisPorColaborador(@Param("de") LocalDate de, @Param("ate") LocalDate ate,
+                                                    @Param("departamentoId") Long departamentoId);
 }
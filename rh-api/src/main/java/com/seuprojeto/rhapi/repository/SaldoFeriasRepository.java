@@ -0,0 +1,8 @@
+package com.seuprojeto.rhapi.repository;
+
+import com.seuprojeto.rhapi.domain.SaldoFerias;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/** Leitura dos contadores; as somas são feitas por SaldoFeriasService (SQL_SOMAR). */
+public interface SaldoFeriasRepository extends JpaRepository<SaldoFerias, Long> {
+}
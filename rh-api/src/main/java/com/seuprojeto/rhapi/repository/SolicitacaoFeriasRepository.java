@@ -3,16 +3,46 @@ package com.seuprojeto.rhapi.repository;
 
 import com.seuprojeto.rhapi.domain.SolicitacaoFerias;
 import com.seuprojeto.rhapi.domain.enums.StatusFerias;
+import com.seuprojeto.rhapi.dto.SolicitacaoFeriasDTO;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface SolicitacaoFeriasRepository extends JpaRepository<SolicitacaoFerias, Long> {
 
-    List<SolicitacaoFerias> findByColaborador_Id(Long colaboradorId);
+    /**
+     * Página por cursor (id > cursor) com filtros opcionais; o período filtra as solicitações
+     * que cruzam [de, ate]. Usa idx_ferias_colab_status / idx_ferias_status_id.
+     */
+    @Query("""
+           select new com.seuprojeto.rhapi.dto.SolicitacaoFeriasDTO(
+                  s.id, c.id, s.dataInicio, s.dataFim, s.dias, s.status, s.motivo, s.createdAt, s.updatedAt)
+             from SolicitacaoFerias s join s.colaborador c
+            where (:colabId is null or c.id = :colabId)
+              and (:departamentoId is null or c.departamento.id = :departamentoId)
+              and (:status is null or s.status = :status)
+              and (:de is null or s.dataFim >= :de)
+              and (:ate is null or s.dataInicio <= :ate)
+              and s.id > :cursor
+            order by s.id
+           """)
+    List<SolicitacaoFeriasDTO> pagina(@Param("colabId") Long colaboradorId,
+                                   @Param("departamentoId") Long departamentoId,
+                                   @Param("status") StatusFerias status,
+                                   @Param("de") LocalDate de,
+                                   @Param("ate") LocalDate ate,
+                                   @Param("cursor") long cursor,
+                                   Limit limite);
 
     @Query("""
            select count(s) > 0
@@ -27,21 +57,24 @@ public interface SolicitacaoFeriasRepository extends JpaRepository<SolicitacaoFe
                        @Param("dataInicio") LocalDate dataInicio,
                        @Param("dataFim") LocalDate dataFim);
 
-    @Query("""
-           select coalesce(sum(s.dias), 0)
-             from SolicitacaoFerias s
-            where s.colaborador.id = :colabId
-              and s.status = :status
-           """)
-    Integer sumDiasByStatus(@Param("colabId") Long colaboradorId,
-                            @Param("status") StatusFerias status);
+    /** Solicitação com lock de escrita, para a troca de status e os contadores andarem juntos. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from SolicitacaoFerias s join fetch s.colaborador where s.id = :id")
+    Optional<SolicitacaoFerias> findParaAtualizar(@Param("id") Long id);
 
-    @Query("""
-           select coalesce(sum(s.dias), 0)
-             from SolicitacaoFerias s
-            where s.colaborador.id = :colabId
-              and s.status in :statuses
-           """)
-    Integer sumDiasByStatuses(@Param("colabId") Long colaboradorId,
-                              @Param("statuses") List<StatusFerias> statuses);
+    /** Snapshot travado de um lote, em ordem de id (a mesma ordem de lock em todas as transações). */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from SolicitacaoFerias s join fetch s.colaborador where s.id in :ids order by s.id")
+    List<SolicitacaoFerias> findParaAtualizarEmLote(@Param("ids") Collection<Long> ids);
+
+    @Query("select s from SolicitacaoFerias s where s.colaborador.id in :colabIds and s.status = :status")
+    List<SolicitacaoFerias> findByColaboradoresAndStatus(@Param("colabIds") Collection<Long> colaboradorIds,
+                                                         @Param("status") StatusFerias status);
+
+    /** Troca de status em uma instrução (não passa pelo contexto de persistência). */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("update SolicitacaoFerias s set s.status = :status, s.updatedAt = :agora where s.id in :ids")
+    int atualizarStatus(@Param("ids") Collection<Long> ids,
+                        @Param("status") StatusFerias status,
+                        @Param("agora") Instant agora);
 }
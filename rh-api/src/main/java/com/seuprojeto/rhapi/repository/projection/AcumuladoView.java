@@ -0,0 +1,9 @@
+package com.seuprojeto.rhapi.repository.projection;
+
+/**
+ * Saldo acumulado de um colaborador numa competência.
+ */
+public interface AcumuladoView {
+    long getColaboradorId();
+    int getAcumuladoMin();
+}
@@ -0,0 +1,22 @@
+package com.seuprojeto.rhapi.repository.projection;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Colaborador para leitura (listagem e detalhe): as colunas de ColaboradorDTO
+ * e o nome do departamento em uma consulta, sem carregar entidades.
+ */
+public interface ColaboradorView {
+    Long getId();
+    String getNome();
+    String getCpf();
+    String getEmail();
+    Boolean getAtivo();
+    String getCargo();
+    LocalDate getDataAdmissao();
+    Long getDepartamentoId();
+    String getDepartamentoNome();
+    Instant getCreatedAt();
+    Instant getUpdatedAt();
+}
@@ -0,0 +1,13 @@
+package com.seuprojeto.rhapi.repository.projection;
+
+/**
+ * Trabalhado de um colaborador na competência, agregado no banco.
+ */
+public interface HorasColaboradorView {
+    long getColaboradorId();
+    String getNome();
+    Long getDepartamentoId();
+    String getDepartamentoNome();
+    int getDiasTrabalhados();
+    long getTrabalhadoMin();
+}
@@ -0,0 +1,17 @@
+package com.seuprojeto.rhapi.repository.projection;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Projeção enxuta de um registro de ponto: só as marcações do dia,
+ * sem carregar Colaborador/Departamento.
+ */
+public interface PontoDiaView {
+    Long getId();
+    LocalDate getData();
+    LocalTime getHoraEntrada();
+    LocalTime getInicioAlmoco();
+    LocalTime getFimAlmoco();
+    LocalTime getHoraSaida();
+}
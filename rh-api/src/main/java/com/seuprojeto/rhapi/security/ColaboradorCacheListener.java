@@ -0,0 +1,26 @@
+package com.seuprojeto.rhapi.security;
+
+import com.seuprojeto.rhapi.domain.Colaborador;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener JPA do Colaborador: qualquer alteração ou remoção derruba a entrada do cache de principal.
+ * (O Spring Boot registra o SpringBeanContainer no Hibernate, então o listener recebe injeção.)
+ */
+@Component
+public class ColaboradorCacheListener {
+
+    private final ColaboradorPrincipalCache cache;
+
+    public ColaboradorCacheListener(ColaboradorPrincipalCache cache) {
+        this.cache = cache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void aoAlterar(Colaborador c) {
+        cache.invalidar(c.getId());
+    }
+}
@@ -0,0 +1,20 @@
+package com.seuprojeto.rhapi.security;
+
+import java.security.Principal;
+
+/**
+ * Principal publicado pelo JwtAuthFilter a partir dos claims do token.
+ * Permite identificar quem chama sem consultar o banco; getName() continua sendo o e-mail.
+ *
+ * @param id    id do colaborador (null em tokens antigos, emitidos sem o claim "id")
+ * @param email subject do token
+ * @param papel papel (ADMIN/RH/COLABORADOR), se presente
+ * @param ativo situação do colaborador no momento do login
+ */
+public record ColaboradorPrincipal(Long id, String email, String papel, boolean ativo) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,43 @@
+package com.seuprojeto.rhapi.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.seuprojeto.rhapi.domain.Colaborador;
+import com.seuprojeto.rhapi.repository.ColaboradorRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cache (limitado e com expiração) do Colaborador autenticado, por id.
+ * As entradas são invalidadas pelo ColaboradorCacheListener quando o colaborador muda.
+ * O objeto guardado está destacado da sessão: use apenas para leitura.
+ */
+@Component
+public class ColaboradorPrincipalCache {
+
+    private final ColaboradorRepository repo;
+    private final Cache<Long, Colaborador> cache;
+
+    public ColaboradorPrincipalCache(ColaboradorRepository repo,
+                                     @Value("${app.principal-cache.max-entradas:20000}") long maxEntradas,
+                                     @Value("${app.principal-cache.ttl-minutos:10}") long ttlMinutos) {
+        this.repo = repo;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutos))
+                .build();
+    }
+
+    public Optional<Colaborador> buscar(Long colaboradorId) {
+        if (colaboradorId == null) return Optional.empty();
+        // não guarda "não encontrado": findById devolve null e o Caffeine não armazena
+        return Optional.ofNullable(cache.get(colaboradorId, id -> repo.findById(id).orElse(null)));
+    }
+
+    public void invalidar(Long colaboradorId) {
+        if (colaboradorId != null) cache.invalidate(colaboradorId);
+    }
+}
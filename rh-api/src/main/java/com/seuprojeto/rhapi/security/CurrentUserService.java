@@ -6,28 +6,44 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 /**
  * Resolve o colaborador logado a partir do SecurityContext.
- * Suposição: o "username" do Authentication é o e-mail do colaborador.
- * Ajuste caso sua autenticação guarde o ID diretamente em um claim.
+ * O JwtAuthFilter publica um ColaboradorPrincipal com o id vindo do token, então
+ * identificar quem chama não custa SELECT. Quem precisa da entidade passa pelo
+ * ColaboradorPrincipalCache. Tokens antigos (sem claim "id") caem na busca por e-mail.
  */
 @Service
 public class CurrentUserService {
 
     private final ColaboradorRepository colaboradorRepository;
+    private final ColaboradorPrincipalCache principalCache;
 
-    public CurrentUserService(ColaboradorRepository colaboradorRepository) {
+    public CurrentUserService(ColaboradorRepository colaboradorRepository,
+                              ColaboradorPrincipalCache principalCache) {
         this.colaboradorRepository = colaboradorRepository;
+        this.principalCache = principalCache;
     }
 
-    public Long getColaboradorIdOrThrow() {
+    /** Id do colaborador autenticado, ou vazio se não houver autenticação. */
+    public Optional<Long> getColaboradorId() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || auth.getName() == null) {
-            throw new IllegalStateException("Usuário não autenticado.");
+        if (auth == null || auth.getName() == null) return Optional.empty();
+
+        if (auth.getPrincipal() instanceof ColaboradorPrincipal p && p.id() != null) {
+            return Optional.of(p.id());
         }
-        String email = auth.getName();
-        Colaborador c = colaboradorRepository.findByEmail(email)
-            .orElseThrow(() -> new IllegalStateException("Colaborador não encontrado para o usuário autenticado."));
-        return c.getId();
+        return colaboradorRepository.findByEmailIgnoreCase(auth.getName()).map(Colaborador::getId);
+    }
+
+    public Long getColaboradorIdOrThrow() {
+        return getColaboradorId()
+            .orElseThrow(() -> new IllegalStateException("Usuário não autenticado."));
+    }
+
+    /** Entidade do colaborador autenticado (via cache; somente leitura). */
+    public Optional<Colaborador> getColaborador() {
+        return getColaboradorId().flatMap(principalCache::buscar);
     }
 }
@@ -92,9 +92,18 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                     auths = Collections.emptyList();
                 }
 
-                var authentication =
-                        new UsernamePasswordAuthenticationToken(subject, null, auths);
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                // principal tipado a partir dos claims: quem chama é identificado sem ir ao banco
+                Object ativoObj = claims.get("ativo");
+                boolean ativo = ativoObj == null || Boolean.parseBoolean(String.valueOf(ativoObj));
+                Object idObj = claims.get("id");
+                Long id = idObj instanceof Number n ? n.longValue() : null;
+                var principal = new ColaboradorPrincipal(id, subject, role, ativo);
+
+                if (ativo) {
+                    var authentication =
+                            new UsernamePasswordAuthenticationToken(principal, null, auths);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception ex) {
             // Token inválido/expirado: limpa contexto e segue sem autenticar.
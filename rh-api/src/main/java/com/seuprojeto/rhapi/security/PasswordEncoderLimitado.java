@@ -0,0 +1,48 @@
+package com.seuprojeto.rhapi.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limita quantos hashes BCrypt rodam ao mesmo tempo.
+ *
+ * BCrypt é só CPU: com virtual threads, um pico de logins ocuparia todas as threads portadoras
+ * e atrasaria as demais requisições (bater ponto, status do dia). Quem excede o limite espera
+ * no semáforo, o que para uma virtual thread não custa uma thread de plataforma.
+ */
+public class PasswordEncoderLimitado implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Semaphore permissoes;
+
+    public PasswordEncoderLimitado(PasswordEncoder delegate, int concorrencia) {
+        this.delegate = delegate;
+        this.permissoes = new Semaphore(Math.max(1, concorrencia));
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        permissoes.acquireUninterruptibly();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            permissoes.release();
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        permissoes.acquireUninterruptibly();
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            permissoes.release();
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
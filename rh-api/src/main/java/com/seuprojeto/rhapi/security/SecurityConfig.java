@@ -1,6 +1,8 @@
 package com.seuprojeto.rhapi.security;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
@@ -80,6 +82,9 @@ public class SecurityConfig {
                 // Preflight CORS
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
 
+                // Fim de respostas em streaming (a requisição original já foi autorizada)
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Estáticos / docs
                 .requestMatchers(
                         "/", "/index.html",
@@ -95,10 +100,20 @@ public class SecurityConfig {
                 .requestMatchers("/banco-horas/**").hasAnyRole("RH","ADMIN")
                 .requestMatchers("/relatorios/email/**").hasAnyRole("RH","ADMIN")
                 .requestMatchers("/assinaturas/**").hasAnyRole("RH","ADMIN")
+                .requestMatchers(HttpMethod.GET, "/jornadas/cache").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.GET, "/departamentos/*/banco-horas").hasAnyRole("GESTOR","RH","ADMIN")
+                .requestMatchers(HttpMethod.POST, "/feriados/**").hasAnyRole("RH","ADMIN")
+                .requestMatchers(HttpMethod.DELETE, "/feriados/**").hasAnyRole("RH","ADMIN")
+                .requestMatchers(HttpMethod.GET, "/ferias/ocupacao/**").hasAnyRole("GESTOR","RH","ADMIN")
+                .requestMatchers(HttpMethod.PATCH, "/ferias/status").hasAnyRole("GESTOR","RH","ADMIN")
 
                 // Ponto
                 .requestMatchers(HttpMethod.POST, "/pontos/bater").hasAnyRole("COLABORADOR","GESTOR","ADMIN")
                 .requestMatchers(HttpMethod.GET, "/pontos/status-dia").authenticated()
+                .requestMatchers(HttpMethod.GET, "/pontos/fila").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.GET, "/pontos/status-dia/cache").hasRole("ADMIN")
+                .requestMatchers("/pontos/afd/**").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.GET, "/pontos/eventos").hasAnyRole("RH","GESTOR","ADMIN")
 
                 // Demais exigem auth
                 .anyRequest().authenticated()
@@ -109,7 +124,11 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() { return new BCryptPasswordEncoder(); }
+    public PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt-concorrencia:0}") int concorrencia) {
+        // 0 = um hash por núcleo
+        int limite = concorrencia > 0 ? concorrencia : Runtime.getRuntime().availableProcessors();
+        return new PasswordEncoderLimitado(new BCryptPasswordEncoder(), limite);
+    }
 
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
@@ -0,0 +1,100 @@
+package com.seuprojeto.rhapi.service;
+
+import java.time.LocalDate;
+
+/**
+ * Leitura das linhas do AFD (Arquivo Fonte de Dados) gerado pelos relógios REP.
+ *
+ * Suporta o leiaute da Portaria 671/2021 (data/hora ISO e CPF de 12 posições) e o leiaute
+ * legado da Portaria 1510/2009 (ddmmaaaa + hhmm e PIS de 12 posições).
+ * Os campos são lidos por posição, dígito a dígito, sem regex nem substring.
+ */
+public final class AfdParser {
+
+    public static final char TIPO_CABECALHO = '1';
+    public static final char TIPO_MARCACAO = '3';
+    public static final char TIPO_MARCACAO_REP_P = '7';
+
+    // cabeçalho: NSR(9) tipo(1) tpIdt(1) CNPJ/CPF(14) + CNO/CAEPF(14, 671) ou CEI(12, 1510) + razão social(150)
+    private static final int REP_INI_671 = 189;
+    private static final int REP_INI_1510 = 187;
+    private static final int REP_TAM = 17;
+
+    private AfdParser() {}
+
+    /** Marcação lida do AFD. Em cada leiaute só um dos identificadores vem preenchido (o outro é 0). */
+    public record Marcacao(long nsr, LocalDate data, int segundoDoDia, long cpf, long pis) {}
+
+    /** NSR da linha (posições 1–9), ou -1 se a linha não tiver NSR numérico. */
+    public static long nsr(String linha) {
+        if (linha.length() < 10) return -1;
+        try {
+            return numero(linha, 0, 9);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /** Tipo do registro (posição 10), ou '\0' para linhas curtas. */
+    public static char tipo(String linha) {
+        return linha.length() < 10 ? '\0' : linha.charAt(9);
+    }
+
+    /** Identificação do REP (número de fabricação / id do REP-P) informada no cabeçalho. */
+    public static String identificacaoRep(String cabecalho) {
+        if (tipo(cabecalho) != TIPO_CABECALHO) return null;
+        // no 671 a data inicial (AAAA-MM-DD) vem logo após a identificação do REP
+        int ini = (cabecalho.length() > REP_INI_671 + REP_TAM + 4 && cabecalho.charAt(REP_INI_671 + REP_TAM + 4) == '-')
+                ? REP_INI_671 : REP_INI_1510;
+        if (cabecalho.length() < ini + REP_TAM) return null;
+        String rep = cabecalho.substring(ini, ini + REP_TAM).strip();
+        return rep.isEmpty() ? null : rep;
+    }
+
+    /**
+     * Lê uma linha de marcação (tipo 3, ou tipo 7 do REP-P).
+     * Retorna null se a linha não for marcação; lança NumberFormatException/DateTimeException se estiver corrompida.
+     */
+    public static Marcacao marcacao(String linha) {
+        char tipo = tipo(linha);
+        if (tipo != TIPO_MARCACAO && tipo != TIPO_MARCACAO_REP_P) return null;
+        long nsr = numero(linha, 0, 9);
+
+        if (linha.length() >= 46 && linha.charAt(14) == '-') {
+            // 671: AAAA-MM-DDThh:mm:00-0300 (pos. 11–34) + CPF (pos. 35–46)
+            LocalDate data = LocalDate.of(
+                    (int) numero(linha, 10, 14), (int) numero(linha, 15, 17), (int) numero(linha, 18, 20));
+            int seg = (int) (numero(linha, 21, 23) * 3600 + numero(linha, 24, 26) * 60);
+            return new Marcacao(nsr, data, seg, numero(linha, 34, 46), 0);
+        }
+        if (linha.length() >= 34) {
+            // 1510: ddmmaaaa (pos. 11–18) + hhmm (pos. 19–22) + PIS (pos. 23–34)
+            LocalDate data = LocalDate.of(
+                    (int) numero(linha, 14, 18), (int) numero(linha, 12, 14), (int) numero(linha, 10, 12));
+            int seg = (int) (numero(linha, 18, 20) * 3600 + numero(linha, 20, 22) * 60);
+            return new Marcacao(nsr, data, seg, 0, numero(linha, 22, 34));
+        }
+        throw new NumberFormatException("Linha de marcação incompleta: NSR " + nsr);
+    }
+
+    /** Apenas os dígitos do documento como número (CPF formatado ou não). */
+    public static long documento(String valor) {
+        if (valor == null) return 0;
+        long n = 0;
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c >= '0' && c <= '9') n = n * 10 + (c - '0');
+        }
+        return n;
+    }
+
+    private static long numero(String s, int ini, int fim) {
+        long n = 0;
+        for (int i = ini; i < fim; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') throw new NumberFormatException("Caractere inválido na posição " + (i + 1));
+            n = n * 10 + (c - '0');
+        }
+        return n;
+    }
+}
@@ -2,59 +2,88 @@ package com.seuprojeto.rhapi.service;
 
 import com.seuprojeto.rhapi.domain.BancoDeHoras;
 import com.seuprojeto.rhapi.domain.Colaborador;
+import com.seuprojeto.rhapi.domain.Departamento;
 import com.seuprojeto.rhapi.domain.JornadaTrabalho;
-import com.seuprojeto.rhapi.domain.enums.StatusFerias;
+import com.seuprojeto.rhapi.domain.RegistroPonto;
 import com.seuprojeto.rhapi.dto.ExtratoDiaDTO;
 import com.seuprojeto.rhapi.dto.ExtratoPeriodoDTO;
+import com.seuprojeto.rhapi.dto.HorasColaboradorDTO;
+import com.seuprojeto.rhapi.dto.HorasDepartamentoDTO;
+import com.seuprojeto.rhapi.dto.PainelBancoHorasDTO;
+import com.seuprojeto.rhapi.dto.RelatorioHorasDTO;
 import com.seuprojeto.rhapi.repository.BancoDeHorasRepository;
 import com.seuprojeto.rhapi.repository.ColaboradorRepository;
-import com.seuprojeto.rhapi.repository.JornadaTrabalhoRepository;
 import com.seuprojeto.rhapi.repository.RegistroPontoRepository;
-import com.seuprojeto.rhapi.repository.SolicitacaoFeriasRepository;
+import com.seuprojeto.rhapi.repository.projection.AcumuladoView;
+import com.seuprojeto.rhapi.repository.projection.HorasColaboradorView;
+import com.seuprojeto.rhapi.repository.projection.PontoDiaView;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.*;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class BancoHorasService {
 
+    /** Minutos previstos por dia da semana (segunda..domingo) para quem não tem jornada cadastrada: 8h em dias úteis. */
+    public static final int[] JORNADA_PADRAO = { 480, 480, 480, 480, 480, 0, 0 };
+
     private final RegistroPontoRepository pontoRepo;
-    private final JornadaTrabalhoRepository jornadaRepo;
+    private final JornadaCache jornadaCache;
+    private final CalendarioService calendario;
     private final BancoDeHorasRepository bancoRepo;
     private final ColaboradorRepository colabRepo;
-    private final SolicitacaoFeriasRepository feriasRepo;
+    private final SaldoFeriasService saldoFerias;
 
     public BancoHorasService(RegistroPontoRepository pontoRepo,
-                             JornadaTrabalhoRepository jornadaRepo,
+                             JornadaCache jornadaCache,
+                             CalendarioService calendario,
                              BancoDeHorasRepository bancoRepo,
                              ColaboradorRepository colabRepo,
-                             SolicitacaoFeriasRepository feriasRepo) {
+                             SaldoFeriasService saldoFerias) {
         this.pontoRepo = pontoRepo;
-        this.jornadaRepo = jornadaRepo;
+        this.jornadaCache = jornadaCache;
+        this.calendario = calendario;
         this.bancoRepo = bancoRepo;
         this.colabRepo = colabRepo;
-        this.feriasRepo = feriasRepo;
+        this.saldoFerias = saldoFerias;
+    }
+
+    /**
+     * Aplica no banco de horas da competência a variação de minutos trabalhados de um dia
+     * (chamado a cada gravação de ponto, na mesma transação).
+     * O acumulado desta competência e das seguintes recebe o mesmo delta.
+     * Se a competência ainda não tem linha em bancos_horas, faz o cálculo completo uma única vez.
+     */
+    @Transactional
+    public void aplicarVariacaoDia(Long colaboradorId, LocalDate data, int trabalhadoAntes, int trabalhadoDepois) {
+        int delta = trabalhadoDepois - trabalhadoAntes;
+        if (delta == 0) return;
+
+        YearMonth competencia = YearMonth.from(data);
+        int atualizados = bancoRepo.somarSaldo(colaboradorId, competencia.toString(), delta);
+        if (atualizados == 0) {
+            recalcularSaldoMensal(colaboradorId, competencia);
+            return;
+        }
+        bancoRepo.propagarAcumulado(colaboradorId, competencia.toString(), delta);
     }
 
     /**
-     * Recalcula o saldo do mês (competência) e persiste/atualiza em BancoDeHoras.
+     * Recalcula o saldo do mês (competência) do zero e persiste/atualiza em BancoDeHoras.
+     * A diferença para o saldo anterior é propagada ao acumulado das competências seguintes.
+     * O saldo é mantido incrementalmente pelas batidas; use isto apenas para reconciliação.
      */
+    @Transactional
     public BancoDeHoras recalcularSaldoMensal(Long colaboradorId, YearMonth competencia) {
         Colaborador colab = colabRepo.findById(colaboradorId)
                 .orElseThrow(() -> new IllegalArgumentException("Colaborador não encontrado"));
-        JornadaTrabalho jornada = jornadaRepo.findByColaborador_Id(colaboradorId).orElse(null);
-
-        LocalDate ini = competencia.atDay(1);
-        LocalDate fim = competencia.atEndOfMonth();
-
-        int saldoMes = 0;
-        for (LocalDate d = ini; !d.isAfter(fim); d = d.plusDays(1)) {
-            int previsto = minutosPrevistosNoDia(jornada, d.getDayOfWeek());
-            int trabalhado = minutosTrabalhadosNoDia(colaboradorId, d);
-            saldoMes += (trabalhado - previsto);
-        }
+        int saldoMes = livro(colab, competencia.atDay(1), competencia.atEndOfMonth()).saldoTotal();
 
         String comp = competencia.toString(); // "YYYY-MM"
         BancoDeHoras banco = bancoRepo.findByColaborador_IdAndCompetencia(colaboradorId, comp)
@@ -64,86 +93,197 @@ public class BancoHorasService {
                     b.setCompetencia(comp);
                     return b;
                 });
+        // linha nova parte de saldo 0: o delta é o saldo inteiro do mês
+        int delta = saldoMes - banco.getSaldoMinutos();
+        int acumulado = (banco.getId() == null)
+                ? bancoRepo.findSaldoAcumuladoAte(colaboradorId, competencia.minusMonths(1).toString()).orElse(0) + saldoMes
+                : banco.getSaldoAcumuladoMinutos() + delta;
         banco.setSaldoMinutos(saldoMes);
-        return bancoRepo.save(banco);
+        banco.setSaldoAcumuladoMinutos(acumulado);
+        banco = bancoRepo.save(banco);
+
+        if (delta != 0) {
+            bancoRepo.propagarAcumulado(colaboradorId, competencia.plusMonths(1).toString(), delta);
+        }
+        return banco;
     }
 
     /**
      * Extrato por período (dia a dia) + enriquecimentos:
      * - bancoAcumuladoMin: saldo anterior (até mês anterior ao 'de') + saldo do período
-     * - saldoFeriasDias: (anos completos * 30) - dias aprovados 
+     * - saldoFeriasDias: saldo disponível de SaldoFeriasService
      */
     public ExtratoPeriodoDTO extratoPeriodo(Long colaboradorId, LocalDate de, LocalDate ate) {
         if (de.isAfter(ate)) throw new IllegalArgumentException("'de' deve ser antes ou igual a 'ate'");
 
         Colaborador c = colabRepo.findById(colaboradorId)
                 .orElseThrow(() -> new IllegalArgumentException("Colaborador não encontrado"));
-        JornadaTrabalho jornada = jornadaRepo.findByColaborador_Id(colaboradorId).orElse(null);
+        LivroHoras livro = livro(c, de, ate);
+        int saldoTotal = livro.saldoTotal();
 
-        List<ExtratoDiaDTO> dias = new ArrayList<>();
-        int saldoTotal = 0;
-
-        for (LocalDate d = de; !d.isAfter(ate); d = d.plusDays(1)) {
-            int previsto = minutosPrevistosNoDia(jornada, d.getDayOfWeek());
-            int trabalhado = minutosTrabalhadosNoDia(colaboradorId, d);
-            int saldo = trabalhado - previsto;
-            dias.add(new ExtratoDiaDTO(d, previsto, trabalhado, saldo));
-            saldoTotal += saldo;
+        // DTOs só na borda: um por dia do período
+        List<ExtratoDiaDTO> dias = new ArrayList<>(livro.dias());
+        for (int i = 0; i < livro.dias(); i++) {
+            dias.add(new ExtratoDiaDTO(LocalDate.ofEpochDay(livro.epochDay(i)),
+                    livro.previsto(i), livro.trabalhado(i), livro.saldo(i)));
         }
 
-        // Banco acumulado = soma de saldos até a competência anterior + saldoTotal do período atual:
+        // Banco acumulado = acumulado até a competência anterior (busca pontual) + saldoTotal do período atual:
         YearMonth compAnterior = YearMonth.from(de).minusMonths(1);
-        String atéCompAnterior = compAnterior.toString(); // "YYYY-MM"
-        Integer acumuladoAnterior = bancoRepo.sumSaldoAte(colaboradorId, atéCompAnterior);
-        if (acumuladoAnterior == null) acumuladoAnterior = 0;
+        int acumuladoAnterior = bancoRepo.findSaldoAcumuladoAte(colaboradorId, compAnterior.toString()).orElse(0);
         int bancoAcumuladoMin = acumuladoAnterior + saldoTotal;
 
-        // Saldo de férias (simplificado para TCC):
-        int anos = Period.between(c.getDataAdmissao(), LocalDate.now()).getYears();
-        int diasAdquiridos = Math.max(anos, 0) * 30;
-        int aprovadas = safeInt(feriasRepo.sumDiasByStatus(c.getId(), StatusFerias.APROVADA));
-        int saldoFeriasDias = Math.max(diasAdquiridos - aprovadas, 0);
+        int saldoFeriasDias = saldoFerias.disponivel(c);
 
         return new ExtratoPeriodoDTO(
                 c.getId(), de, ate, dias, saldoTotal, bancoAcumuladoMin, saldoFeriasDias
         );
     }
 
+    // ----- Relatórios (trabalhado agregado no MySQL, sem carregar os registros) -----
+
+    /** Trabalhado x previsto por departamento na competência, com o total da empresa. */
+    public RelatorioHorasDTO relatorioDepartamentos(YearMonth competencia) {
+        Map<Long, HorasDepartamentoDTO> porDepartamento = new HashMap<>();
+        for (HorasColaboradorDTO c : relatorioColaboradores(competencia, null)) {
+            porDepartamento.merge(c.departamentoId(),
+                    new HorasDepartamentoDTO(c.departamentoId(), c.departamento(), 1,
+                            c.trabalhadoMin(), c.previstoMin(), c.saldoMin()),
+                    (a, b) -> new HorasDepartamentoDTO(a.departamentoId(), a.departamento(),
+                            a.colaboradores() + 1, a.trabalhadoMin() + b.trabalhadoMin(),
+                            a.previstoMin() + b.previstoMin(), a.saldoMin() + b.saldoMin()));
+        }
+        List<HorasDepartamentoDTO> departamentos = porDepartamento.values().stream()
+                .sorted(Comparator.comparing(HorasDepartamentoDTO::departamento,
+                        Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList();
+
+        long trabalhado = 0, previsto = 0;
+        for (HorasDepartamentoDTO d : departamentos) {
+            trabalhado += d.trabalhadoMin();
+            previsto += d.previstoMin();
+        }
+        return new RelatorioHorasDTO(competencia.toString(), departamentos, trabalhado, previsto, trabalhado - previsto);
+    }
+
+    /**
+     * Trabalhado x previsto por colaborador ativo na competência; departamentoId nulo = empresa inteira.
+     * Uma consulta para o trabalhado e uma para as férias aprovadas; jornadas e feriados vêm dos caches
+     * (as jornadas que faltam, numa consulta só para a lista inteira).
+     */
+    public List<HorasColaboradorDTO> relatorioColaboradores(YearMonth competencia, Long departamentoId) {
+        List<HorasColaboradorView> linhas =
+                pontoRepo.totaisPorColaborador(competencia.atDay(1), competencia.atEndOfMonth(), departamentoId);
+
+        Map<Long, Long> departamentos = new HashMap<>(linhas.size() * 2);
+        for (HorasColaboradorView v : linhas) {
+            departamentos.put(v.getColaboradorId(), v.getDepartamentoId() == null ? 0L : v.getDepartamentoId());
+        }
+        Map<Long, long[]> folgas = calendario.folgas(departamentos, competencia.getYear());
+        Map<Long, int[]> jornadas = jornadaCache.minutosPorDiaSemana(departamentos.keySet());
+        int[] dias = diasPorDiaSemana(competencia);
+
+        List<HorasColaboradorDTO> r = new ArrayList<>(linhas.size());
+        for (HorasColaboradorView v : linhas) {
+            int previsto = CalendarioService.previstoNoMes(jornadas.get(v.getColaboradorId()),
+                    dias, folgas.get(v.getColaboradorId()), competencia);
+            r.add(new HorasColaboradorDTO(v.getColaboradorId(), v.getNome(), v.getDepartamentoId(),
+                    v.getDepartamentoNome(), v.getDiasTrabalhados(), v.getTrabalhadoMin(), previsto,
+                    v.getTrabalhadoMin() - previsto));
+        }
+        return r;
+    }
+
+    /**
+     * Painel do departamento na competência: trabalhado, previsto, saldo e acumulado de cada colaborador
+     * ativo, em colunas. Três consultas (trabalhado, férias aprovadas, acumulados anteriores) qualquer que
+     * seja o tamanho da equipe; jornadas e feriados vêm dos caches.
+     */
+    public PainelBancoHorasDTO painelDepartamento(Departamento d, YearMonth competencia) {
+        List<HorasColaboradorDTO> linhas = relatorioColaboradores(competencia, d.getId());
+
+        Map<Long, Integer> anteriores = new HashMap<>(linhas.size() * 2);
+        for (AcumuladoView a : bancoRepo.findSaldosAcumuladosAteDoDepartamento(
+                d.getId(), competencia.minusMonths(1).toString())) {
+            anteriores.put(a.getColaboradorId(), a.getAcumuladoMin());
+        }
+
+        int n = linhas.size();
+        long[] ids = new long[n];
+        String[] nomes = new String[n];
+        int[] trabalhado = new int[n], previsto = new int[n], saldo = new int[n], acumulado = new int[n];
+        long totalTrabalhado = 0, totalPrevisto = 0;
+        for (int i = 0; i < n; i++) {
+            HorasColaboradorDTO c = linhas.get(i);
+            ids[i] = c.colaboradorId();
+            nomes[i] = c.nome();
+            trabalhado[i] = (int) c.trabalhadoMin();
+            previsto[i] = (int) c.previstoMin();
+            saldo[i] = trabalhado[i] - previsto[i];
+            acumulado[i] = anteriores.getOrDefault(c.colaboradorId(), 0) + saldo[i];
+            totalTrabalhado += trabalhado[i];
+            totalPrevisto += previsto[i];
+        }
+        return new PainelBancoHorasDTO(d.getId(), d.getNome(), competencia.toString(), n,
+                ids, nomes, trabalhado, previsto, saldo, acumulado,
+                totalTrabalhado, totalPrevisto, totalTrabalhado - totalPrevisto);
+    }
+
     // ----- Helpers -----
 
-    private int minutosTrabalhadosNoDia(Long colaboradorId, LocalDate data) {
-        return pontoRepo.findByColaborador_IdAndData(colaboradorId, data)
-                .map(r -> {
-                    int total = minutosEntre(r.getHoraEntrada(), r.getHoraSaida());
-                    if (r.getInicioAlmoco() != null && r.getFimAlmoco() != null) {
-                        total -= minutosEntre(r.getInicioAlmoco(), r.getFimAlmoco());
-                    }
-                    return Math.max(total, 0);
-                })
-                .orElse(0);
+    /** Quantas segundas, terças, ... domingos a competência tem (índice 0 = segunda). */
+    public static int[] diasPorDiaSemana(YearMonth competencia) {
+        int[] dias = new int[7];
+        for (LocalDate d = competencia.atDay(1); !d.isAfter(competencia.atEndOfMonth()); d = d.plusDays(1)) {
+            dias[d.getDayOfWeek().getValue() - 1]++;
+        }
+        return dias;
+    }
+
+    /** Minutos previstos no período: jornada (minutos por dia da semana) x quantidade de cada dia. */
+    public static int previstoNoPeriodo(int[] jornada, int[] diasPorDiaSemana) {
+        int previsto = 0;
+        for (int d = 0; d < 7; d++) previsto += diasPorDiaSemana[d] * jornada[d];
+        return previsto;
     }
 
-    private int minutosPrevistosNoDia(JornadaTrabalho j, DayOfWeek dow) {
-        if (j == null) {
-            return switch (dow) {
-                case MONDAY, TUESDAY, WEDNESDAY, THURSDAY, FRIDAY -> 480; // 8h padrão
-                default -> 0;
-            };
+    /**
+     * Livro de horas do período: previsto pela jornada (em cache) sem os feriados e as férias aprovadas,
+     * e trabalhado pelas marcações, com uma única consulta por faixa de datas (em vez de uma por dia).
+     */
+    private LivroHoras livro(Colaborador c, LocalDate de, LocalDate ate) {
+        Long colaboradorId = c.getId();
+        Long departamentoId = c.getDepartamento() == null ? null : c.getDepartamento().getId();
+        LivroHoras livro = new LivroHoras(de, ate).aplicarJornada(jornadaCache.minutosPorDiaSemana(colaboradorId));
+        for (int ano = de.getYear(); ano <= ate.getYear(); ano++) {
+            livro.aplicarFolgas(calendario.folgas(colaboradorId, departamentoId, ano), ano);
         }
-        return switch (dow) {
-            case MONDAY -> j.getMinutosSeg();
-            case TUESDAY -> j.getMinutosTer();
-            case WEDNESDAY -> j.getMinutosQua();
-            case THURSDAY -> j.getMinutosQui();
-            case FRIDAY -> j.getMinutosSex();
-            case SATURDAY -> j.getMinutosSab();
-            case SUNDAY -> j.getMinutosDom();
-        };
+        for (PontoDiaView r : pontoRepo.findMarcacoesNoPeriodo(colaboradorId, de, ate)) {
+            livro.registrar(r.getData().toEpochDay(),
+                    LivroHoras.segundos(r.getHoraEntrada()), LivroHoras.segundos(r.getInicioAlmoco()),
+                    LivroHoras.segundos(r.getFimAlmoco()), LivroHoras.segundos(r.getHoraSaida()));
+        }
+        return livro;
+    }
+
+    public static int minutosTrabalhados(RegistroPonto r) {
+        if (r == null) return 0;
+        return minutosTrabalhados(r.getHoraEntrada(), r.getInicioAlmoco(), r.getFimAlmoco(), r.getHoraSaida());
     }
 
-    private int minutosEntre(java.time.LocalTime ini, java.time.LocalTime fim) {
-        return (int) java.time.Duration.between(ini, fim).toMinutes();
+    public static int minutosTrabalhados(LocalTime entrada, LocalTime inicioAlmoco,
+                                         LocalTime fimAlmoco, LocalTime saida) {
+        // dia ainda aberto (sem entrada ou saída) não conta como trabalhado
+        return LivroHoras.minutos(LivroHoras.segundos(entrada), LivroHoras.segundos(inicioAlmoco),
+                LivroHoras.segundos(fimAlmoco), LivroHoras.segundos(saida));
     }
 
-    private int safeInt(Integer v) { return v == null ? 0 : v; }
+    /** Jornada como vetor de minutos por dia da semana (índice 0 = segunda); sem jornada, JORNADA_PADRAO. */
+    public static int[] minutosPorDiaSemana(JornadaTrabalho j) {
+        if (j == null) return JORNADA_PADRAO;
+        return new int[] {
+                j.getMinutosSeg(), j.getMinutosTer(), j.getMinutosQua(), j.getMinutosQui(),
+                j.getMinutosSex(), j.getMinutosSab(), j.getMinutosDom()
+        };
+    }
 }
@@ -0,0 +1,150 @@
+package com.seuprojeto.rhapi.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Calendário de dias sem expediente compilado em máscaras de bits por (departamento, ano):
+ * long[6] com um bit por dia do ano (bit 0 = 1º de janeiro). Consultar um dia é O(1).
+ *
+ * As máscaras de feriados ficam em memória (Caffeine) e são recompiladas depois de uma edição
+ * do calendário neste nó ({@link #invalidar()}) ou, com mais de um nó, quando expiram
+ * (app.calendario.ttl-minutos). As férias aprovadas são sobrepostas numa cópia
+ * da máscara do departamento, por colaborador, e não ficam em cache.
+ * Máscaras devolvidas são somente leitura.
+ */
+@Service
+public class CalendarioService {
+
+    private static final int PALAVRAS = 6; // 6 * 64 = 384 >= 366 dias
+
+    private static final String SQL_FERIADOS = """
+            SELECT DAYOFYEAR(data)
+              FROM feriados
+             WHERE data BETWEEN ? AND ?
+               AND (departamento_id IS NULL OR departamento_id = ?)
+            """;
+
+    private static final String SQL_FERIAS = """
+            SELECT colaborador_id, data_inicio, data_fim
+              FROM solicitacoes_ferias
+             WHERE status = 'APROVADA'
+               AND colaborador_id BETWEEN ? AND ?
+               AND data_inicio <= ? AND data_fim >= ?
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    // chave: ano << 32 | departamento (0 = sem departamento). Uma carga por chave no loader;
+    // invalidar() espera as cargas em andamento, então nenhuma máscara anterior à edição fica no cache.
+    private final LoadingCache<Long, long[]> mascaras;
+
+    public CalendarioService(JdbcTemplate jdbc,
+                             @Value("${app.calendario.ttl-minutos:60}") long ttlMinutos) {
+        this.jdbc = jdbc;
+        Caffeine<Object, Object> b = Caffeine.newBuilder();
+        if (ttlMinutos > 0) b.expireAfterWrite(Duration.ofMinutes(ttlMinutos));
+        this.mascaras = b.build(this::compilar);
+    }
+
+    /** Feriados do departamento no ano (os gerais e os do departamento). */
+    public long[] feriados(Long departamentoId, int ano) {
+        long dep = departamentoId == null ? 0 : departamentoId;
+        return mascaras.get(((long) ano << 32) | dep);
+    }
+
+    /** Descarta as máscaras compiladas; chamado a cada edição do calendário. */
+    public void invalidar() {
+        mascaras.invalidateAll();
+    }
+
+    private long[] compilar(long chave) {
+        int ano = (int) (chave >>> 32);
+        long dep = chave & 0xFFFF_FFFFL;
+        long[] m = new long[PALAVRAS];
+        jdbc.query(SQL_FERIADOS, rs -> {
+            int i = rs.getInt(1) - 1;
+            m[i >>> 6] |= 1L << i;
+        }, LocalDate.ofYearDay(ano, 1), LocalDate.of(ano, 12, 31), dep);
+        return m;
+    }
+
+    /** Dias sem expediente do colaborador no ano: feriados do departamento + férias aprovadas. */
+    public long[] folgas(Long colaboradorId, Long departamentoId, int ano) {
+        return folgas(Map.of(colaboradorId, departamentoId == null ? 0L : departamentoId), ano)
+                .get(colaboradorId);
+    }
+
+    /**
+     * Dias sem expediente no ano para vários colaboradores (colaborador → departamento, 0 = nenhum),
+     * com uma única consulta de férias para a faixa de ids. Quem não tem férias no ano recebe a
+     * máscara compartilhada do departamento.
+     */
+    public Map<Long, long[]> folgas(Map<Long, Long> departamentoPorColaborador, int ano) {
+        Map<Long, long[]> r = new HashMap<>(departamentoPorColaborador.size() * 2);
+        if (departamentoPorColaborador.isEmpty()) return r;
+
+        long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+        for (Map.Entry<Long, Long> e : departamentoPorColaborador.entrySet()) {
+            long dep = e.getValue();
+            r.put(e.getKey(), feriados(dep == 0 ? null : dep, ano));
+            min = Math.min(min, e.getKey());
+            max = Math.max(max, e.getKey());
+        }
+
+        LocalDate ini = LocalDate.ofYearDay(ano, 1);
+        LocalDate fim = LocalDate.of(ano, 12, 31);
+        Map<Long, long[]> copias = new HashMap<>();
+        jdbc.query(SQL_FERIAS, rs -> {
+            long colab = rs.getLong(1);
+            long[] base = r.get(colab);
+            if (base == null) return; // fora do conjunto pedido (consulta é por faixa)
+            long[] m = copias.computeIfAbsent(colab, k -> base.clone());
+            marcar(m, ano, rs.getObject(2, LocalDate.class), rs.getObject(3, LocalDate.class));
+        }, min, max, fim, ini);
+        r.putAll(copias);
+        return r;
+    }
+
+    // ----- Operações sobre máscaras -----
+
+    /** Dia do ano (1..366) marcado como folga. */
+    public static boolean folga(long[] mascara, int diaDoAno) {
+        int i = diaDoAno - 1;
+        return (mascara[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /** Marca o intervalo [de, ate] (limitado ao ano) na máscara. */
+    public static void marcar(long[] mascara, int ano, LocalDate de, LocalDate ate) {
+        long inicioAno = LocalDate.ofYearDay(ano, 1).toEpochDay();
+        int ultimo = LocalDate.of(ano, 12, 31).getDayOfYear() - 1;
+        int a = (int) Math.max(0, de.toEpochDay() - inicioAno);
+        int b = (int) Math.min(ultimo, ate.toEpochDay() - inicioAno);
+        for (int i = a; i <= b; i++) mascara[i >>> 6] |= 1L << i;
+    }
+
+    /**
+     * Previsto do mês: jornada x dias da semana, menos a jornada de cada dia de folga do mês.
+     * {@code diasPorDiaSemana} vem de BancoHorasService.diasPorDiaSemana(competencia).
+     */
+    public static int previstoNoMes(int[] jornada, int[] diasPorDiaSemana, long[] folgas, YearMonth competencia) {
+        int previsto = BancoHorasService.previstoNoPeriodo(jornada, diasPorDiaSemana);
+        LocalDate primeiro = competencia.atDay(1);
+        int diaDoAno = primeiro.getDayOfYear();
+        int dow = LivroHoras.diaDaSemana(primeiro.toEpochDay());
+        for (int d = 0; d < competencia.lengthOfMonth(); d++, diaDoAno++) {
+            if (folga(folgas, diaDoAno)) previsto -= jornada[dow];
+            if (++dow == 7) dow = 0;
+        }
+        return previsto;
+    }
+}
@@ -0,0 +1,46 @@
+package com.seuprojeto.rhapi.service;
+
+import java.time.LocalDate;
+
+/**
+ * Colaborador + dia empacotados num long, para mapas e caches com milhões de entradas.
+ *
+ * 22 bits baixos: epoch day (1970-01-01 até ~13450); 41 bits altos: id do colaborador.
+ * Fora dessas faixas não há chave: quem chama confere {@link #cabe} antes.
+ */
+final class ChaveColabDia {
+
+    private static final int BITS_DIA = 22;
+    private static final long MASCARA_DIA = (1L << BITS_DIA) - 1;
+    private static final long MAX_COLABORADOR = (1L << (Long.SIZE - 1 - BITS_DIA)) - 1;
+
+    private ChaveColabDia() {}
+
+    static boolean cabe(long colaboradorId, long epochDay) {
+        return colaboradorId >= 0 && colaboradorId <= MAX_COLABORADOR
+                && epochDay >= 0 && epochDay <= MASCARA_DIA;
+    }
+
+    static boolean cabe(long colaboradorId, LocalDate data) {
+        return cabe(colaboradorId, data.toEpochDay());
+    }
+
+    static long de(long colaboradorId, long epochDay) {
+        if (!cabe(colaboradorId, epochDay)) {
+            throw new IllegalArgumentException("Colaborador " + colaboradorId + " / dia " + epochDay + " fora da faixa da chave");
+        }
+        return (colaboradorId << BITS_DIA) | (epochDay & MASCARA_DIA);
+    }
+
+    static long de(long colaboradorId, LocalDate data) {
+        return de(colaboradorId, data.toEpochDay());
+    }
+
+    static long colaboradorId(long chave) {
+        return chave >>> BITS_DIA;
+    }
+
+    static long epochDay(long chave) {
+        return chave & MASCARA_DIA;
+    }
+}
@@ -0,0 +1,54 @@
+package com.seuprojeto.rhapi.service;
+
+import com.seuprojeto.rhapi.domain.Colaborador;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+
+/**
+ * Listener JPA do Colaborador: troca de departamento ou de ativo derruba o índice de ocupação de férias
+ * do departamento antigo e do novo (depois do commit, para a recarga não ler o estado anterior).
+ */
+@Component
+public class ColaboradorOcupacaoListener {
+
+    private final OcupacaoFeriasService ocupacao;
+
+    public ColaboradorOcupacaoListener(OcupacaoFeriasService ocupacao) {
+        this.ocupacao = ocupacao;
+    }
+
+    @PostUpdate
+    public void aoAlterar(Colaborador c) {
+        Long depAntigo = c.getDepartamentoIdGravado();
+        Long depNovo = c.getDepartamento() == null ? null : c.getDepartamento().getId();
+        if (Objects.equals(depAntigo, depNovo) && Objects.equals(c.getAtivoGravado(), c.getAtivo())) return;
+        invalidarDepoisDoCommit(depAntigo, depNovo);
+    }
+
+    @PostRemove
+    public void aoRemover(Colaborador c) {
+        invalidarDepoisDoCommit(c.getDepartamentoIdGravado(), null);
+    }
+
+    private void invalidarDepoisDoCommit(Long depAntigo, Long depNovo) {
+        Runnable invalidar = () -> {
+            if (depAntigo != null) ocupacao.invalidar(depAntigo);
+            if (depNovo != null) ocupacao.invalidar(depNovo);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidar.run();
+                }
+            });
+        } else {
+            invalidar.run();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.seuprojeto.rhapi.service;
 
+import jakarta.annotation.PreDestroy;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,6 +11,9 @@ import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Service
 public class EmailService {
@@ -17,10 +21,23 @@ public class EmailService {
     private final JavaMailSender mailSender;
     private final String from;
 
+    // O transporte SMTP do Jakarta Mail usa métodos synchronized durante o I/O, o que prenderia a thread
+    // portadora de uma virtual thread. O envio roda num pool pequeno de threads de plataforma;
+    // quem chama continua síncrono (espera o resultado) e, se for virtual, apenas desmonta.
+    private final ExecutorService envio;
+
     public EmailService(JavaMailSender mailSender,
-                        @Value("${spring.mail.from}") String from) {
+                        @Value("${spring.mail.from}") String from,
+                        @Value("${app.mail.threads-envio:4}") int threadsEnvio) {
         this.mailSender = mailSender;
         this.from = from;
+        this.envio = Executors.newFixedThreadPool(Math.max(1, threadsEnvio),
+                Thread.ofPlatform().name("smtp-envio-", 0).daemon(true).factory());
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        envio.shutdown();
     }
 
     /** Envia texto simples (sem anexo) */
@@ -32,7 +49,7 @@ public class EmailService {
             helper.setTo(to);
             helper.setSubject(subject);
             helper.setText(body, false);
-            mailSender.send(msg);
+            enviar(msg);
         } catch (MessagingException e) {
             throw new IllegalStateException("Falha ao montar/enviar e-mail de texto.", e);
         }
@@ -61,7 +78,7 @@ public class EmailService {
                 helper.addAttachment(attachName, res, ct);
             }
 
-            mailSender.send(msg);
+            enviar(msg);
         } catch (MessagingException e) {
             throw new IllegalStateException("Falha ao montar/enviar e-mail HTML com anexo.", e);
         }
@@ -159,6 +176,18 @@ public class EmailService {
     // Utils
     // ==========================
 
+    private void enviar(MimeMessage msg) {
+        try {
+            envio.submit(() -> mailSender.send(msg)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Envio de e-mail interrompido.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("Falha ao enviar e-mail.", e.getCause());
+        }
+    }
+
     private static String normalizeHost(String hostBase) {
         if (hostBase == null || hostBase.isBlank()) return "";
         String h = hostBase.trim();
@@ -0,0 +1,333 @@
+package com.seuprojeto.rhapi.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Exportação da empresa inteira no estilo AFD (largura fixa) ou AEJ (campos separados por "|").
+ *
+ * As linhas vêm de um cursor do MySQL (fetchSize = Integer.MIN_VALUE: o driver entrega linha a linha,
+ * sem materializar o resultado) e são codificadas direto em bytes num buffer reutilizado;
+ * a memória usada não depende do período nem do número de colaboradores.
+ *
+ * AFD: cabeçalho (tipo 1), uma linha tipo 3 por marcação (NSR sequencial, data/hora, CPF) e trailer (9).
+ *      Os NSRs seguem a ordem das marcações: leitura em (data, colaborador_id), pelo índice
+ *      idx_ponto_data_colab, e as marcações de cada dia da empresa ordenadas por hora em memória
+ *      (só um dia por vez fica em memória). Sem CRC-16: o arquivo é gerado pelo sistema, não pelo REP.
+ * AEJ: 01 cabeçalho, 03 vínculo (id, CPF, nome), 04 jornada contratual (minutos seg..dom),
+ *      05 marcação (vínculo, data/hora, E/S, sequência, fonte) e 99 trailer com as contagens.
+ *      Marcações por vínculo, em ordem (colaborador_id, data), pelo índice uk_ponto_colab_data.
+ */
+@Service
+public class ExportacaoAfdService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportacaoAfdService.class);
+    private static final ZoneId ZONE = ZoneId.of("America/Sao_Paulo");
+
+    private static final String SQL_MARCACOES_AFD = """
+            SELECT c.cpf,
+                   YEAR(r.data) * 10000 + MONTH(r.data) * 100 + DAY(r.data) AS ymd,
+                   TIME_TO_SEC(r.hora_entrada), TIME_TO_SEC(r.inicio_almoco),
+                   TIME_TO_SEC(r.fim_almoco), TIME_TO_SEC(r.hora_saida)
+              FROM registros_ponto r
+              JOIN colaboradores c ON c.id = r.colaborador_id
+             WHERE r.data BETWEEN ? AND ?
+             ORDER BY r.data, r.colaborador_id
+            """;
+
+    private static final String SQL_MARCACOES = """
+            SELECT c.id, c.cpf,
+                   YEAR(r.data) * 10000 + MONTH(r.data) * 100 + DAY(r.data) AS ymd,
+                   TIME_TO_SEC(r.hora_entrada), TIME_TO_SEC(r.inicio_almoco),
+                   TIME_TO_SEC(r.fim_almoco), TIME_TO_SEC(r.hora_saida),
+                   r.origem
+              FROM registros_ponto r
+              JOIN colaboradores c ON c.id = r.colaborador_id
+             WHERE r.data BETWEEN ? AND ?
+             ORDER BY r.colaborador_id, r.data
+            """;
+
+    private static final String SQL_VINCULOS = """
+            SELECT c.id, c.cpf, c.nome,
+                   j.minutos_seg, j.minutos_ter, j.minutos_qua, j.minutos_qui,
+                   j.minutos_sex, j.minutos_sab, j.minutos_dom
+              FROM colaboradores c
+              LEFT JOIN jornadas_trabalho j ON j.colaborador_id = c.id
+             WHERE EXISTS (SELECT 1 FROM registros_ponto r
+                            WHERE r.colaborador_id = c.id AND r.data BETWEEN ? AND ?)
+             ORDER BY c.id
+            """;
+
+    private static final char[] TIPO_MARC = { 'E', 'S', 'E', 'S' };
+    private static final char[] SEQ_MARC = { '1', '1', '2', '2' };
+
+    public enum Formato { AFD, AEJ }
+
+    private final JdbcTemplate cursor;
+    private final String cnpj;
+    private final String razaoSocial;
+
+    public ExportacaoAfdService(DataSource dataSource,
+                                @Value("${app.empresa.cnpj:}") String cnpj,
+                                @Value("${app.empresa.razao-social:}") String razaoSocial) {
+        // JdbcTemplate próprio: o fetchSize MIN_VALUE ativa o streaming do Connector/J só nestas consultas
+        this.cursor = new JdbcTemplate(dataSource);
+        this.cursor.setFetchSize(Integer.MIN_VALUE);
+        this.cnpj = cnpj.replaceAll("\\D", "");
+        this.razaoSocial = razaoSocial;
+    }
+
+    /** Escreve a exportação do período em {@code out}. Não fecha o stream. */
+    public Resumo exportar(Formato formato, LocalDate de, LocalDate ate, OutputStream out) {
+        long ini = System.nanoTime();
+        Linha l = new Linha(out);
+        long[] contagens = formato == Formato.AFD ? exportarAfd(de, ate, l) : exportarAej(de, ate, l);
+        l.descarregar();
+
+        long ms = (System.nanoTime() - ini) / 1_000_000;
+        log.info("Exportação {} {}..{}: {} marcação(ões), {} bytes em {} ms",
+                formato, de, ate, contagens[0], l.bytes, ms);
+        return new Resumo(contagens[0], l.bytes, ms);
+    }
+
+    // ----- AFD (largura fixa) -----
+
+    private long[] exportarAfd(LocalDate de, LocalDate ate, Linha l) {
+        // tipo 1: NSR, tipo, tpIdt (1 = CNPJ), CNPJ, CNO/CAEPF, razão social, id REP, período, geração, versão
+        l.num(0, 9).chr('1').chr('1').num(AfdParser.documento(cnpj), 14).txt("", 14).txt(razaoSocial, 150)
+                .txt("", 17).txt(de.toString(), 10).txt(ate.toString(), 10)
+                .txt(ZonedDateTime.now(ZONE).format(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm':00'Z")), 24)
+                .txt("003", 3).fim();
+
+        long[] nsr = { 0 };
+        MarcacoesDia dia = new MarcacoesDia();
+        cursor.query(SQL_MARCACOES_AFD, rs -> {
+            int ymd = rs.getInt(2);
+            if (ymd != dia.ymd) nsr[0] = dia.escrever(l, nsr[0]);
+            dia.ymd = ymd;
+            long cpf = AfdParser.documento(rs.getString(1));
+            for (int slot = 0; slot < 4; slot++) {
+                int seg = segundos(rs, 3 + slot);
+                if (seg >= 0) dia.adicionar(cpf, seg);
+            }
+        }, de, ate);
+        nsr[0] = dia.escrever(l, nsr[0]);
+
+        // tipo 9: trailer com a quantidade de registros tipo 3
+        l.num(999999999, 9).num(0, 9).num(nsr[0], 9).num(0, 9).num(0, 9).num(0, 9).num(0, 9).chr('9').fim();
+        return new long[] { nsr[0] };
+    }
+
+    /**
+     * Marcações de um dia da empresa, acumuladas em vetores e escritas em ordem de hora
+     * (empate: ordem de leitura, ou seja, colaborador_id). Reutilizado de um dia para o outro.
+     */
+    static final class MarcacoesDia {
+        int ymd;
+        private long[] cpfs = new long[1024];
+        // hora no alto, posição de leitura no baixo: ordenar os longs ordena por (hora, leitura)
+        private long[] ordem = new long[1024];
+        private int n;
+
+        void adicionar(long cpf, int seg) {
+            if (n == cpfs.length) {
+                cpfs = Arrays.copyOf(cpfs, n * 2);
+                ordem = Arrays.copyOf(ordem, n * 2);
+            }
+            cpfs[n] = cpf;
+            ordem[n] = ((long) seg << 32) | n;
+            n++;
+        }
+
+        /** Escreve o dia em linhas tipo 3 a partir de {@code nsr} + 1 e esvazia; retorna o último NSR. */
+        long escrever(Linha l, long nsr) {
+            if (n == 0) return nsr;
+            Arrays.sort(ordem, 0, n);
+            String offset = offset(ymd);
+            for (int i = 0; i < n; i++) {
+                int seg = (int) (ordem[i] >>> 32);
+                long cpf = cpfs[(int) ordem[i]];
+                // tipo 3: NSR(9) tipo(1) AAAA-MM-DDThh:mm:00-0300(24) CPF(12)
+                l.num(++nsr, 9).chr('3').data(ymd).chr('T').hora(seg).txt(":00", 3).txt(offset, 5)
+                        .num(cpf, 12).fim();
+            }
+            n = 0;
+            return nsr;
+        }
+    }
+
+    // ----- AEJ (separado por "|") -----
+
+    private long[] exportarAej(LocalDate de, LocalDate ate, Linha l) {
+        l.txt("01|1|").txt(cnpj).txt("|||").txt(razaoSocial).chr('|').txt(de.toString()).chr('|')
+                .txt(ate.toString()).chr('|')
+                .txt(ZonedDateTime.now(ZONE).format(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssZ")))
+                .txt("|001").fim();
+
+        long[] vinculos = { 0 };
+        cursor.query(SQL_VINCULOS, rs -> {
+            long id = rs.getLong(1);
+            l.txt("03|").num(id).chr('|').num(AfdParser.documento(rs.getString(2)), 11).chr('|')
+                    .txt(rs.getString(3)).fim();
+            l.txt("04|").num(id);
+            for (int i = 4; i <= 10; i++) l.chr('|').num(rs.getInt(i));
+            l.fim();
+            vinculos[0]++;
+        }, de, ate);
+
+        long[] marcacoes = { 0 };
+        Map<Integer, String> offsets = new HashMap<>();
+        cursor.query(SQL_MARCACOES, rs -> {
+            long id = rs.getLong(1);
+            int ymd = rs.getInt(3);
+            String offset = offsets.computeIfAbsent(ymd, ExportacaoAfdService::offset);
+            char fonte = fonte(rs.getString(8));
+            for (int slot = 0; slot < 4; slot++) {
+                int seg = segundos(rs, 4 + slot);
+                if (seg < 0) continue;
+                l.txt("05|").num(id).chr('|').data(ymd).chr('T').hora(seg).txt(":00").txt(offset)
+                        .txt("||").chr(TIPO_MARC[slot]).chr('|').chr(SEQ_MARC[slot]).chr('|').chr(fonte)
+                        .chr('|').num(id).txt("|").fim();
+                marcacoes[0]++;
+            }
+        }, de, ate);
+
+        l.txt("99|1|0|").num(vinculos[0]).chr('|').num(vinculos[0]).chr('|').num(marcacoes[0]).fim();
+        return new long[] { marcacoes[0] };
+    }
+
+    // ----- Internos -----
+
+    private static int segundos(ResultSet rs, int col) throws SQLException {
+        int s = rs.getInt(col);
+        return rs.wasNull() ? -1 : s;
+    }
+
+    /** Deslocamento (-0300 / -0200) do dia em São Paulo; calculado uma vez por dia do período. */
+    private static String offset(int ymd) {
+        LocalDateTime meioDia = LocalDateTime.of(ymd / 10000, ymd / 100 % 100, ymd % 100, 12, 0);
+        int total = ZONE.getRules().getOffset(meioDia).getTotalSeconds() / 60;
+        int abs = Math.abs(total);
+        return String.format("%c%02d%02d", total < 0 ? '-' : '+', abs / 60, abs % 60);
+    }
+
+    /** Fonte da marcação no AEJ: O = original do REP, I = incluída manualmente, T = outras (web/app). */
+    private static char fonte(String origem) {
+        if ("REP".equals(origem)) return 'O';
+        if ("MANUAL".equals(origem)) return 'I';
+        return 'T';
+    }
+
+    /** Buffer de saída reutilizado: codifica números e datas direto em bytes, sem Strings intermediárias. */
+    static final class Linha {
+        private final OutputStream out;
+        private final byte[] buf = new byte[64 * 1024];
+        private int pos;
+        long bytes;
+
+        Linha(OutputStream out) {
+            this.out = out;
+        }
+
+        Linha chr(char c) {
+            garantir(1);
+            buf[pos++] = (byte) c;
+            return this;
+        }
+
+        /** Número com zeros à esquerda em largura fixa. */
+        Linha num(long v, int largura) {
+            garantir(largura);
+            for (int i = pos + largura - 1; i >= pos; i--) {
+                buf[i] = (byte) ('0' + (v % 10));
+                v /= 10;
+            }
+            pos += largura;
+            return this;
+        }
+
+        /** Número sem preenchimento. */
+        Linha num(long v) {
+            if (v < 0) {
+                chr('-');
+                v = -v;
+            }
+            int digitos = 1;
+            for (long t = v; t >= 10; t /= 10) digitos++;
+            return num(v, digitos);
+        }
+
+        /** Texto alinhado à esquerda, completado com espaços (ou cortado) até a largura. */
+        Linha txt(String s, int largura) {
+            garantir(largura);
+            int n = s == null ? 0 : Math.min(s.length(), largura);
+            for (int i = 0; i < n; i++) buf[pos + i] = latin1(s.charAt(i));
+            for (int i = n; i < largura; i++) buf[pos + i] = ' ';
+            pos += largura;
+            return this;
+        }
+
+        Linha txt(String s) {
+            if (s == null) return this;
+            for (int i = 0; i < s.length(); i++) {
+                garantir(1);
+                buf[pos++] = latin1(s.charAt(i));
+            }
+            return this;
+        }
+
+        /** AAAA-MM-DD a partir de ymd (20250310). */
+        Linha data(int ymd) {
+            return num(ymd / 10000, 4).chr('-').num(ymd / 100 % 100, 2).chr('-').num(ymd % 100, 2);
+        }
+
+        /** hh:mm a partir do segundo do dia. */
+        Linha hora(int seg) {
+            return num(seg / 3600, 2).chr(':').num(seg / 60 % 60, 2);
+        }
+
+        Linha fim() {
+            chr('\r');
+            return chr('\n');
+        }
+
+        void descarregar() {
+            try {
+                out.write(buf, 0, pos);
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            bytes += pos;
+            pos = 0;
+        }
+
+        private void garantir(int n) {
+            if (pos + n > buf.length) descarregar();
+        }
+
+        private static byte latin1(char c) {
+            return c <= 0xFF ? (byte) c : (byte) '?';
+        }
+    }
+
+    public record Resumo(long marcacoes, long bytes, long duracaoMs) {}
+}
@@ -0,0 +1,179 @@
+package com.seuprojeto.rhapi.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seuprojeto.rhapi.domain.Colaborador;
+import com.seuprojeto.rhapi.repository.BancoDeHorasRepository;
+import com.seuprojeto.rhapi.repository.ColaboradorRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.function.IntFunction;
+
+/**
+ * Extrato em NDJSON (application/x-ndjson): uma linha por dia, na ordem, e uma linha final com os totais.
+ *
+ * As marcações vêm de um cursor do MySQL (fetchSize = Integer.MIN_VALUE) em ordem de data e cada dia é
+ * escrito assim que calculado, com as mesmas regras de LivroHoras (jornada, feriados e férias aprovadas
+ * do CalendarioService); nada é acumulado por dia, então a memória não depende do tamanho do período.
+ * A máscara de folgas é consultada em outra conexão do pool, uma vez por ano do período.
+ *
+ * Linhas:
+ *   {"tipo":"dia","data":"2025-03-07","previstoMin":480,"trabalhadoMin":500,"saldoMin":20}
+ *   {"tipo":"total","colaboradorId":1,"de":"...","ate":"...","dias":365,"previstoMin":...,
+ *    "trabalhadoMin":...,"saldoTotalMin":...,"bancoAcumuladoMin":...}
+ */
+@Service
+public class ExtratoStreamingService {
+
+    private static final String SQL_MARCACOES = """
+            SELECT DATEDIFF(data, '1970-01-01'),
+                   TIME_TO_SEC(hora_entrada), TIME_TO_SEC(inicio_almoco),
+                   TIME_TO_SEC(fim_almoco), TIME_TO_SEC(hora_saida)
+              FROM registros_ponto
+             WHERE colaborador_id = ? AND data BETWEEN ? AND ?
+             ORDER BY data
+            """;
+
+    private final JdbcTemplate cursor;
+    private final ObjectMapper mapper;
+    private final ColaboradorRepository colabRepo;
+    private final JornadaCache jornadaCache;
+    private final CalendarioService calendario;
+    private final BancoDeHorasRepository bancoRepo;
+
+    public ExtratoStreamingService(DataSource dataSource,
+                                   ObjectMapper mapper,
+                                   ColaboradorRepository colabRepo,
+                                   JornadaCache jornadaCache,
+                                   CalendarioService calendario,
+                                   BancoDeHorasRepository bancoRepo) {
+        // JdbcTemplate próprio: o fetchSize MIN_VALUE ativa o streaming do Connector/J só nesta consulta
+        this.cursor = new JdbcTemplate(dataSource);
+        this.cursor.setFetchSize(Integer.MIN_VALUE);
+        this.mapper = mapper;
+        this.colabRepo = colabRepo;
+        this.jornadaCache = jornadaCache;
+        this.calendario = calendario;
+        this.bancoRepo = bancoRepo;
+    }
+
+    /**
+     * Valida os parâmetros antes de a resposta começar a ser escrita
+     * (depois do primeiro byte não dá mais para responder 400).
+     */
+    public void validar(Long colaboradorId, LocalDate de, LocalDate ate) {
+        if (de.isAfter(ate)) throw new IllegalArgumentException("'de' deve ser antes ou igual a 'ate'");
+        if (!colabRepo.existsById(colaboradorId)) throw new IllegalArgumentException("Colaborador não encontrado");
+    }
+
+    /** Escreve o extrato do período em {@code out}. Não fecha o stream. */
+    public void escrever(Long colaboradorId, LocalDate de, LocalDate ate, OutputStream out) {
+        Colaborador c = colabRepo.findById(colaboradorId)
+                .orElseThrow(() -> new IllegalArgumentException("Colaborador não encontrado"));
+        Long departamentoId = c.getDepartamento() == null ? null : c.getDepartamento().getId();
+        int[] jornada = jornadaCache.minutosPorDiaSemana(colaboradorId);
+        int acumuladoAnterior = bancoRepo.findSaldoAcumuladoAte(
+                colaboradorId, YearMonth.from(de).minusMonths(1).toString()).orElse(0);
+
+        try (JsonGenerator g = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            g.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            g.setRootValueSeparator(null); // o separador entre linhas é o '\n' escrito após cada objeto
+            Dias dias = new Dias(g, jornada, ano -> calendario.folgas(colaboradorId, departamentoId, ano), de.toEpochDay());
+
+            cursor.query(SQL_MARCACOES, rs -> {
+                long dia = rs.getLong(1);
+                dias.ate(dia);
+                dias.escrever(dia, LivroHoras.minutos(segundos(rs, 2), segundos(rs, 3), segundos(rs, 4), segundos(rs, 5)));
+            }, colaboradorId, de, ate);
+            dias.ate(ate.toEpochDay() + 1);
+
+            g.writeStartObject();
+            g.writeStringField("tipo", "total");
+            g.writeNumberField("colaboradorId", colaboradorId);
+            g.writeStringField("de", de.toString());
+            g.writeStringField("ate", ate.toString());
+            g.writeNumberField("dias", dias.quantidade);
+            g.writeNumberField("previstoMin", dias.previsto);
+            g.writeNumberField("trabalhadoMin", dias.trabalhado);
+            g.writeNumberField("saldoTotalMin", dias.trabalhado - dias.previsto);
+            g.writeNumberField("bancoAcumuladoMin", acumuladoAnterior + dias.trabalhado - dias.previsto);
+            g.writeEndObject();
+            g.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int segundos(ResultSet rs, int col) throws SQLException {
+        int s = rs.getInt(col);
+        return rs.wasNull() ? LivroHoras.SEM_MARCACAO : s;
+    }
+
+    /**
+     * Escreve os dias em ordem, preenchendo os dias sem marcação; guarda só os totais
+     * e a máscara de folgas do ano corrente (trocada na virada do ano).
+     */
+    private static final class Dias {
+        private final JsonGenerator g;
+        private final int[] jornada;
+        private final IntFunction<long[]> folgasDoAno;
+        private long proximo;
+        private int dow;
+        private long[] folgas;
+        private long inicioAno = Long.MAX_VALUE;
+        private long fimAno = Long.MIN_VALUE;
+        long quantidade;
+        long previsto;
+        long trabalhado;
+
+        Dias(JsonGenerator g, int[] jornada, IntFunction<long[]> folgasDoAno, long primeiro) {
+            this.g = g;
+            this.jornada = jornada;
+            this.folgasDoAno = folgasDoAno;
+            this.proximo = primeiro;
+            this.dow = LivroHoras.diaDaSemana(primeiro);
+        }
+
+        /** Escreve os dias sem marcação até {@code dia} (exclusivo). */
+        void ate(long dia) {
+            while (proximo < dia) escrever(proximo, 0);
+        }
+
+        void escrever(long dia, int trabalhadoMin) {
+            if (dia > fimAno || dia < inicioAno) {
+                LocalDate d = LocalDate.ofEpochDay(dia);
+                folgas = folgasDoAno.apply(d.getYear());
+                inicioAno = d.withDayOfYear(1).toEpochDay();
+                fimAno = d.withDayOfYear(d.lengthOfYear()).toEpochDay();
+            }
+            int previstoMin = CalendarioService.folga(folgas, (int) (dia - inicioAno) + 1) ? 0 : jornada[dow];
+            try {
+                g.writeStartObject();
+                g.writeStringField("tipo", "dia");
+                g.writeStringField("data", LocalDate.ofEpochDay(dia).toString());
+                g.writeNumberField("previstoMin", previstoMin);
+                g.writeNumberField("trabalhadoMin", trabalhadoMin);
+                g.writeNumberField("saldoMin", trabalhadoMin - previstoMin);
+                g.writeEndObject();
+                g.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            quantidade++;
+            previsto += previstoMin;
+            trabalhado += trabalhadoMin;
+            proximo = dia + 1;
+            if (++dow == 7) dow = 0;
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package com.seuprojeto.rhapi.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fechamento mensal da empresa inteira (banco de horas de uma competência).
+ *
+ * Os colaboradores ativos são divididos em chunks por faixa de id; cada chunk roda numa transação,
+ * num executor limitado (app.fechamento.threads), com três consultas em lote (membros, férias aprovadas
+ * e batidas do mês), um upsert JDBC em lote em bancos_horas e o recálculo do acumulado por janela.
+ * As jornadas vêm do JornadaCache, aquecido com uma consulta única no início do job, e os feriados
+ * das máscaras do CalendarioService.
+ * O estado de cada chunk fica em fechamento_chunks e é gravado na mesma transação do chunk:
+ * após uma queda, o job retoma só os chunks que não concluíram (inclusive na subida da aplicação).
+ * Ao retomar, colaboradores ativos com id além do último chunk ganham chunks novos no fim; com
+ * {@code refazer}, as faixas são refeitas do zero a partir dos colaboradores atuais.
+ */
+@Service
+public class FechamentoMensalService {
+
+    private static final Logger log = LoggerFactory.getLogger(FechamentoMensalService.class);
+
+    private static final String SQL_UPSERT_SALDO = """
+            INSERT INTO bancos_horas (colaborador_id, competencia, saldo_minutos)
+            VALUES (?, ?, ?)
+            ON DUPLICATE KEY UPDATE saldo_minutos = VALUES(saldo_minutos)
+            """;
+
+    // acumulado = soma de prefixo por colaborador; só as competências a partir da fechada mudam
+    private static final String SQL_ACUMULADO = """
+            UPDATE bancos_horas b
+              JOIN (SELECT id,
+                           SUM(saldo_minutos) OVER (PARTITION BY colaborador_id ORDER BY competencia) AS acumulado
+                      FROM bancos_horas
+                     WHERE colaborador_id BETWEEN ? AND ?) x ON x.id = b.id
+               SET b.saldo_acumulado_minutos = x.acumulado
+             WHERE b.competencia >= ?
+            """;
+
+    private static final String SQL_INSERIR_CHUNK = """
+            INSERT INTO fechamento_chunks (fechamento_id, chunk, primeiro_colaborador_id, ultimo_colaborador_id, colaboradores)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private static final String SQL_BATIDAS = """
+            SELECT colaborador_id,
+                   TIME_TO_SEC(hora_entrada), TIME_TO_SEC(inicio_almoco),
+                   TIME_TO_SEC(fim_almoco), TIME_TO_SEC(hora_saida)
+              FROM registros_ponto
+             WHERE colaborador_id BETWEEN ? AND ?
+               AND data BETWEEN ? AND ?
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final JornadaCache jornadaCache;
+    private final CalendarioService calendario;
+    private final int tamanhoChunk;
+    private final ExecutorService executor;
+
+    // competências com job rodando neste nó
+    private final Set<String> emExecucao = ConcurrentHashMap.newKeySet();
+
+    public FechamentoMensalService(JdbcTemplate jdbc,
+                                   TransactionTemplate tx,
+                                   JornadaCache jornadaCache,
+                                   CalendarioService calendario,
+                                   @Value("${app.fechamento.threads:4}") int threads,
+                                   @Value("${app.fechamento.tamanho-chunk:500}") int tamanhoChunk) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.jornadaCache = jornadaCache;
+        this.calendario = calendario;
+        this.tamanhoChunk = Math.max(1, tamanhoChunk);
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads),
+                Thread.ofPlatform().name("fechamento-", 0).daemon(true).factory());
+    }
+
+    /**
+     * Inicia (ou retoma) o fechamento da competência e retorna o progresso atual; o trabalho segue em segundo plano.
+     * Com {@code refazer}, uma competência já fechada é processada de novo por inteiro.
+     */
+    public Progresso iniciar(YearMonth competencia, boolean refazer) {
+        String comp = competencia.toString();
+        if (!emExecucao.add(comp)) {
+            return progresso(competencia).orElseThrow();
+        }
+        try {
+            Optional<Long> existente = jdbc.queryForList("SELECT id FROM fechamentos_mensais WHERE competencia = ?",
+                    Long.class, comp).stream().findFirst();
+            long id = existente.orElseGet(() -> criar(comp));
+
+            if (existente.isPresent()) {
+                if (refazer) {
+                    refazerChunks(id);
+                } else {
+                    jdbc.update("UPDATE fechamento_chunks SET status = 'PENDENTE' WHERE fechamento_id = ? AND status = 'FALHOU'", id);
+                    acrescentarChunks(id);
+                }
+            }
+
+            List<Chunk> pendentes = jdbc.query("""
+                    SELECT chunk, primeiro_colaborador_id, ultimo_colaborador_id, colaboradores
+                      FROM fechamento_chunks
+                     WHERE fechamento_id = ? AND status = 'PENDENTE'
+                     ORDER BY chunk
+                    """, (rs, n) -> new Chunk(rs.getInt(1), rs.getLong(2), rs.getLong(3), rs.getInt(4)), id);
+
+            if (pendentes.isEmpty()) {
+                finalizar(id, comp);
+                return progresso(competencia).orElseThrow();
+            }
+
+            jdbc.update("UPDATE fechamentos_mensais SET status = 'EM_ANDAMENTO', concluido_em = NULL WHERE id = ?", id);
+            log.info("Fechamento {}: {} chunk(s) pendente(s)", comp, pendentes.size());
+
+            // jornadas de todos em uma consulta; os chunks leem do cache
+            jornadaCache.aquecer();
+            int[] diasPorDiaSemana = BancoHorasService.diasPorDiaSemana(competencia);
+            CompletableFuture<?>[] tarefas = pendentes.stream()
+                    .map(c -> CompletableFuture.runAsync(() -> processarChunk(id, competencia, c, diasPorDiaSemana), executor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(tarefas).whenComplete((r, e) -> finalizar(id, comp));
+        } catch (RuntimeException e) {
+            emExecucao.remove(comp);
+            throw e;
+        }
+        return progresso(competencia).orElseThrow();
+    }
+
+    public Optional<Progresso> progresso(YearMonth competencia) {
+        List<Progresso> r = jdbc.query("""
+                SELECT id, status, total_chunks, total_colaboradores, iniciado_em, concluido_em
+                  FROM fechamentos_mensais WHERE competencia = ?
+                """, (rs, n) -> {
+            long id = rs.getLong(1);
+            List<ChunkInfo> chunks = jdbc.query("""
+                    SELECT chunk, colaboradores, status, duracao_ms, erro
+                      FROM fechamento_chunks WHERE fechamento_id = ? ORDER BY chunk
+                    """, (c, m) -> new ChunkInfo(c.getInt(1), c.getInt(2), c.getString(3),
+                    (Long) c.getObject(4, Long.class), c.getString(5)), id);
+            int concluidos = (int) chunks.stream().filter(c -> "CONCLUIDO".equals(c.status())).count();
+            int falhos = (int) chunks.stream().filter(c -> "FALHOU".equals(c.status())).count();
+            return new Progresso(competencia.toString(), rs.getString(2), rs.getInt(3), concluidos, falhos,
+                    rs.getInt(4), instante(rs.getTimestamp(5)), instante(rs.getTimestamp(6)), chunks);
+        }, competencia.toString());
+        return r.stream().findFirst();
+    }
+
+    // ----- Ciclo de vida -----
+
+    /** Retoma, na subida, fechamentos interrompidos por uma queda. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void retomarInterrompidos() {
+        List<String> interrompidos = jdbc.queryForList(
+                "SELECT competencia FROM fechamentos_mensais WHERE status = 'EM_ANDAMENTO'", String.class);
+        for (String comp : interrompidos) {
+            log.info("Retomando fechamento interrompido da competência {}", comp);
+            iniciar(YearMonth.parse(comp), false);
+        }
+    }
+
+    @PreDestroy
+    public void parar() throws InterruptedException {
+        // chunks em andamento terminam ou são desfeitos pela transação; os pendentes ficam para a retomada
+        executor.shutdownNow();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    // ----- Internos -----
+
+    /** Divide os colaboradores ativos em chunks por faixa de id e registra o fechamento. */
+    private long criar(String comp) {
+        return tx.execute(st -> {
+            List<Long> ids = idsAtivos(0);
+            List<Chunk> chunks = dividir(ids, tamanhoChunk, 0);
+
+            GeneratedKeyHolder chave = new GeneratedKeyHolder();
+            jdbc.update(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                        "INSERT INTO fechamentos_mensais (competencia, status, total_chunks, total_colaboradores) "
+                                + "VALUES (?, 'EM_ANDAMENTO', ?, ?)", Statement.RETURN_GENERATED_KEYS);
+                ps.setString(1, comp);
+                ps.setInt(2, chunks.size());
+                ps.setInt(3, ids.size());
+                return ps;
+            }, chave);
+            long id = chave.getKey().longValue();
+            inserirChunks(id, chunks);
+            return id;
+        });
+    }
+
+    /** Refaz as faixas a partir dos colaboradores ativos de agora; todos os chunks voltam a PENDENTE. */
+    private void refazerChunks(long id) {
+        tx.executeWithoutResult(st -> {
+            List<Long> ids = idsAtivos(0);
+            List<Chunk> chunks = dividir(ids, tamanhoChunk, 0);
+            jdbc.update("DELETE FROM fechamento_chunks WHERE fechamento_id = ?", id);
+            inserirChunks(id, chunks);
+            jdbc.update("UPDATE fechamentos_mensais SET total_chunks = ?, total_colaboradores = ? WHERE id = ?",
+                    chunks.size(), ids.size(), id);
+        });
+    }
+
+    /** Na retomada, cria chunks (PENDENTE) para os colaboradores ativos com id além da última faixa. */
+    private void acrescentarChunks(long id) {
+        tx.executeWithoutResult(st -> {
+            long ultimoId = jdbc.queryForObject(
+                    "SELECT COALESCE(MAX(ultimo_colaborador_id), 0) FROM fechamento_chunks WHERE fechamento_id = ?",
+                    Long.class, id);
+            List<Long> novos = idsAtivos(ultimoId);
+            if (novos.isEmpty()) return;
+            int proximo = jdbc.queryForObject(
+                    "SELECT COALESCE(MAX(chunk), -1) + 1 FROM fechamento_chunks WHERE fechamento_id = ?",
+                    Integer.class, id);
+            List<Chunk> chunks = dividir(novos, tamanhoChunk, proximo);
+            inserirChunks(id, chunks);
+            jdbc.update("UPDATE fechamentos_mensais SET total_chunks = total_chunks + ?, "
+                    + "total_colaboradores = total_colaboradores + ? WHERE id = ?", chunks.size(), novos.size(), id);
+            log.info("Fechamento {}: {} colaborador(es) além da última faixa em {} chunk(s) novo(s)",
+                    id, novos.size(), chunks.size());
+        });
+    }
+
+    private List<Long> idsAtivos(long acimaDe) {
+        return jdbc.queryForList("SELECT id FROM colaboradores WHERE ativo = TRUE AND id > ? ORDER BY id",
+                Long.class, acimaDe);
+    }
+
+    private void inserirChunks(long fechamentoId, List<Chunk> chunks) {
+        if (chunks.isEmpty()) return;
+        jdbc.batchUpdate(SQL_INSERIR_CHUNK, chunks, chunks.size(), (ps, c) -> {
+            ps.setLong(1, fechamentoId);
+            ps.setInt(2, c.numero());
+            ps.setLong(3, c.primeiroId());
+            ps.setLong(4, c.ultimoId());
+            ps.setInt(5, c.colaboradores());
+        });
+    }
+
+    /** Faixas de até {@code tamanho} ids da lista ordenada, numeradas a partir de {@code primeiroNumero}. */
+    static List<Chunk> dividir(List<Long> ids, int tamanho, int primeiroNumero) {
+        List<Chunk> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += tamanho) {
+            int fim = Math.min(ids.size(), i + tamanho);
+            chunks.add(new Chunk(primeiroNumero + chunks.size(), ids.get(i), ids.get(fim - 1), fim - i));
+        }
+        return chunks;
+    }
+
+    private void processarChunk(long fechamentoId, YearMonth competencia, Chunk c, int[] diasPorDiaSemana) {
+        long ini = System.nanoTime();
+        LocalDate de = competencia.atDay(1);
+        LocalDate ate = competencia.atEndOfMonth();
+        try {
+            tx.executeWithoutResult(st -> {
+                // colaborador -> departamento (0 = nenhum), na ordem de id
+                Map<Long, Long> membros = new LinkedHashMap<>();
+                jdbc.query("""
+                        SELECT id, COALESCE(departamento_id, 0) FROM colaboradores
+                         WHERE ativo = TRUE AND id BETWEEN ? AND ? ORDER BY id
+                        """, rs -> {
+                    membros.put(rs.getLong(1), rs.getLong(2));
+                }, c.primeiroId(), c.ultimoId());
+                Map<Long, long[]> folgas = calendario.folgas(membros, competencia.getYear());
+
+                Map<Long, int[]> trabalhado = new HashMap<>();
+                jdbc.query(SQL_BATIDAS, rs -> {
+                    int minutos = LivroHoras.minutos(segundos(rs, 2), segundos(rs, 3), segundos(rs, 4), segundos(rs, 5));
+                    trabalhado.computeIfAbsent(rs.getLong(1), k -> new int[1])[0] += minutos;
+                }, c.primeiroId(), c.ultimoId(), de, ate);
+
+                String comp = competencia.toString();
+                jdbc.batchUpdate(SQL_UPSERT_SALDO, membros.keySet(), membros.size(), (ps, colabId) -> {
+                    int[] jornada = jornadaCache.minutosPorDiaSemana(colabId);
+                    int previsto = CalendarioService.previstoNoMes(jornada, diasPorDiaSemana, folgas.get(colabId), competencia);
+                    int[] t = trabalhado.get(colabId);
+                    ps.setLong(1, colabId);
+                    ps.setString(2, comp);
+                    ps.setInt(3, (t == null ? 0 : t[0]) - previsto);
+                });
+                jdbc.update(SQL_ACUMULADO, c.primeiroId(), c.ultimoId(), comp);
+
+                long ms = (System.nanoTime() - ini) / 1_000_000;
+                jdbc.update("""
+                        UPDATE fechamento_chunks
+                           SET status = 'CONCLUIDO', duracao_ms = ?, erro = NULL, concluido_em = CURRENT_TIMESTAMP
+                         WHERE fechamento_id = ? AND chunk = ?
+                        """, ms, fechamentoId, c.numero());
+            });
+            log.debug("Fechamento {}: chunk {} concluído em {} ms", competencia, c.numero(),
+                    (System.nanoTime() - ini) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Fechamento {}: falha no chunk {}", competencia, c.numero(), e);
+            String erro = String.valueOf(e.getMessage());
+            jdbc.update("UPDATE fechamento_chunks SET status = 'FALHOU', duracao_ms = ?, erro = ? "
+                            + "WHERE fechamento_id = ? AND chunk = ?",
+                    (System.nanoTime() - ini) / 1_000_000, erro.substring(0, Math.min(255, erro.length())),
+                    fechamentoId, c.numero());
+        }
+    }
+
+    private void finalizar(long id, String comp) {
+        try {
+            Integer abertos = jdbc.queryForObject(
+                    "SELECT COUNT(*) FROM fechamento_chunks WHERE fechamento_id = ? AND status <> 'CONCLUIDO'",
+                    Integer.class, id);
+            boolean ok = abertos != null && abertos == 0;
+            jdbc.update("UPDATE fechamentos_mensais SET status = ?, concluido_em = CURRENT_TIMESTAMP WHERE id = ?",
+                    ok ? "CONCLUIDO" : "FALHOU", id);
+            log.info("Fechamento {} {}", comp, ok ? "concluído" : "terminou com " + abertos + " chunk(s) com falha");
+        } finally {
+            emExecucao.remove(comp);
+        }
+    }
+
+    private static int segundos(ResultSet rs, int col) throws SQLException {
+        int s = rs.getInt(col);
+        return rs.wasNull() ? LivroHoras.SEM_MARCACAO : s;
+    }
+
+    private static Instant instante(Timestamp t) {
+        return t == null ? null : t.toInstant();
+    }
+
+    record Chunk(int numero, long primeiroId, long ultimoId, int colaboradores) {}
+
+    public record ChunkInfo(int chunk, int colaboradores, String status, Long duracaoMs, String erro) {}
+
+    public record Progresso(
+            String competencia,
+            String status,
+            int totalChunks,
+            int chunksConcluidos,
+            int chunksComFalha,
+            int totalColaboradores,
+            Instant iniciadoEm,
+            Instant concluidoEm,
+            List<ChunkInfo> chunks
+    ) {}
+}
@@ -0,0 +1,557 @@
+package com.seuprojeto.rhapi.service;
+
+import com.seuprojeto.rhapi.domain.enums.OrigemRegistro;
+import com.seuprojeto.rhapi.domain.enums.TipoMarcacao;
+import com.seuprojeto.rhapi.repository.EventoPontoRepository;
+import com.seuprojeto.rhapi.repository.RegistroPontoRepository;
+import com.seuprojeto.rhapi.repository.projection.PontoDiaView;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ingestão opcional "write-behind" do POST /pontos/bater (picos de troca de turno).
+ *
+ * A batida é validada contra o estado do dia em memória, gravada num journal local (fsync)
+ * e enfileirada; a resposta sai sem abrir transação no MySQL. Uma thread escritora drena a
+ * fila e grava as batidas em lotes JDBC, com um único commit por lote.
+ * As escritas são idempotentes, então o journal é simplesmente reaplicado na subida.
+ *
+ * Falhas transitórias (conexão perdida, deadlock, timeout) repetem o lote inteiro. Qualquer outra
+ * falha divide o lote e grava as batidas uma a uma; a que ainda falhar vai para o arquivo de
+ * rejeitadas (mesmo formato do journal) e o restante da fila segue.
+ *
+ * Ativação: app.ponto.write-behind.enabled=true
+ */
+@Service
+public class FilaBatidasService {
+
+    private static final Logger log = LoggerFactory.getLogger(FilaBatidasService.class);
+    private static final ZoneId ZONE = ZoneId.of("America/Sao_Paulo");
+
+    // Slots do dia, na ordem em que são preenchidos
+    public static final int ENTRADA = 0;
+    public static final int INICIO_ALMOCO = 1;
+    public static final int FIM_ALMOCO = 2;
+    public static final int SAIDA = 3;
+
+    private static final String[] ERRO_ORDEM = {
+            null,
+            "Horário atual deve ser após a entrada.",
+            "Horário atual deve ser após o início do almoço.",
+            "Horário atual deve ser após o último marco do dia."
+    };
+
+    // Entrada cria a linha do dia; as demais só preenchem o slot se ainda estiver vazio (replay seguro)
+    private static final String[] SQL_SLOT = {
+            """
+            INSERT INTO registros_ponto (colaborador_id, data, hora_entrada, entrada_lat, entrada_lng, origem)
+            VALUES (?, ?, ?, ?, ?, 'WEB')
+            ON DUPLICATE KEY UPDATE id = id
+            """,
+            """
+            UPDATE registros_ponto
+               SET inicio_almoco = ?, almoco_ini_lat = ?, almoco_ini_lng = ?
+             WHERE colaborador_id = ? AND data = ? AND inicio_almoco IS NULL
+            """,
+            """
+            UPDATE registros_ponto
+               SET fim_almoco = ?, almoco_fim_lat = ?, almoco_fim_lng = ?
+             WHERE colaborador_id = ? AND data = ? AND fim_almoco IS NULL
+            """,
+            """
+            UPDATE registros_ponto
+               SET hora_saida = ?, saida_lat = ?, saida_lng = ?
+             WHERE colaborador_id = ? AND data = ? AND hora_saida IS NULL
+            """
+    };
+
+    // log somente-inserção; a duplicata vira no-op (replay do journal idempotente), outros erros não
+
+    private final boolean ativo;
+    private final Path journalPath;
+    private final Path rejeitadasPath;
+    private final int tamanhoLote;
+    private final long intervaloMs;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final RegistroPontoRepository pontoRepo;
+    private final BancoHorasService bancoHorasService;
+
+    private final ConcurrentHashMap<ChaveDia, EstadoDia> estados = new ConcurrentHashMap<>();
+    private final LinkedBlockingQueue<BatidaPendente> fila = new LinkedBlockingQueue<>();
+
+    // journal: toda batida aceita é gravada (fsync) antes da resposta; truncado quando a fila esvazia.
+    // Locks explícitos em vez de synchronized: o fsync não prende a thread portadora de uma virtual thread.
+    private final ReentrantLock journalLock = new ReentrantLock();
+    private final AtomicLong pendentes = new AtomicLong();
+    private volatile FileChannel journal; // null até iniciar(): batidas recusadas com 503
+
+    private volatile boolean rodando;
+    private Thread escritor;
+
+    // métricas
+    private final AtomicLong lotes = new AtomicLong();
+    private final AtomicLong batidasGravadas = new AtomicLong();
+    private final AtomicLong batidasRejeitadas = new AtomicLong();
+    private final AtomicLong tempoFlushTotalNanos = new AtomicLong();
+    private volatile long ultimoFlushNanos;
+    private volatile long maiorFlushNanos;
+    private volatile int ultimoLote;
+    private volatile int maiorLote;
+
+    public FilaBatidasService(@Value("${app.ponto.write-behind.enabled:false}") boolean ativo,
+                              @Value("${app.ponto.write-behind.journal:./data/batidas.journal}") String journalPath,
+                              @Value("${app.ponto.write-behind.rejeitadas:./data/batidas.rejeitadas}") String rejeitadasPath,
+                              @Value("${app.ponto.write-behind.tamanho-lote:500}") int tamanhoLote,
+                              @Value("${app.ponto.write-behind.intervalo-ms:200}") long intervaloMs,
+                              JdbcTemplate jdbc,
+                              TransactionTemplate tx,
+                              RegistroPontoRepository pontoRepo,
+                              BancoHorasService bancoHorasService) {
+        this.ativo = ativo;
+        this.journalPath = Path.of(journalPath);
+        this.rejeitadasPath = Path.of(rejeitadasPath);
+        this.tamanhoLote = Math.max(1, tamanhoLote);
+        this.intervaloMs = Math.max(1, intervaloMs);
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.pontoRepo = pontoRepo;
+        this.bancoHorasService = bancoHorasService;
+    }
+
+    public boolean ativo() {
+        return ativo;
+    }
+
+    /** Mensagem para batida recusada por não ser posterior ao marco anterior do slot. */
+    public static String mensagemErroOrdem(int slot) {
+        return ERRO_ORDEM[slot];
+    }
+
+    /**
+     * Valida a batida contra o estado do dia em memória, grava no journal e enfileira.
+     * Não toca o banco, exceto para carregar o estado do dia na primeira batida.
+     */
+    public ResultadoBatida registrar(Long colaboradorId, LocalDate data, LocalTime agora, Double lat, Double lng) {
+        if (journal == null) {
+            return ResultadoBatida.erro(503, "Registro de ponto ainda iniciando; tente novamente em instantes.");
+        }
+        EstadoDia estado = estado(colaboradorId, data);
+        estado.lock.lock();
+        try {
+            int slot = estado.proximoSlot();
+            if (slot > SAIDA) {
+                return ResultadoBatida.erro(422, "As 4 batidas do dia já foram registradas.");
+            }
+            if (slot > ENTRADA && !agora.isAfter(estado.slots[slot - 1])) {
+                return ResultadoBatida.erro(400, ERRO_ORDEM[slot]);
+            }
+
+            estado.slots[slot] = agora;
+            int minutosDia = slot == SAIDA
+                    ? BancoHorasService.minutosTrabalhados(estado.slots[ENTRADA], estado.slots[INICIO_ALMOCO],
+                                                           estado.slots[FIM_ALMOCO], estado.slots[SAIDA])
+                    : 0;
+            BatidaPendente b = new BatidaPendente(colaboradorId, data, slot, agora, lat, lng, minutosDia);
+            try {
+                gravarJournal(b);
+            } catch (IOException e) {
+                estado.slots[slot] = null;
+                throw new UncheckedIOException("Falha ao gravar batida no journal", e);
+            }
+            estado.pendentes++;
+            fila.add(b);
+            return ResultadoBatida.ok(slot + 1);
+        } finally {
+            estado.lock.unlock();
+        }
+    }
+
+    /** Marcações do dia já conhecidas em memória (gravadas + pendentes), se o dia estiver carregado. */
+    public Optional<LocalTime[]> marcacoes(Long colaboradorId, LocalDate data) {
+        EstadoDia estado = estados.get(new ChaveDia(colaboradorId, data));
+        if (estado == null) return Optional.empty();
+        estado.lock.lock();
+        try {
+            return Optional.of(estado.slots.clone());
+        } finally {
+            estado.lock.unlock();
+        }
+    }
+
+    /** Esquece o estado em memória do dia (ex.: após lançamento manual). */
+    public void descartarEstado(Long colaboradorId, LocalDate data) {
+        estados.computeIfPresent(new ChaveDia(colaboradorId, data), (k, e) -> e.pendentes > 0 ? e : null);
+    }
+
+    public Metricas metricas() {
+        long n = lotes.get();
+        return new Metricas(
+                ativo,
+                pendentes.get(),
+                n,
+                batidasGravadas.get(),
+                batidasRejeitadas.get(),
+                ultimoLote,
+                maiorLote,
+                n == 0 ? 0 : (double) batidasGravadas.get() / n,
+                ultimoFlushNanos / 1_000_000.0,
+                n == 0 ? 0 : tempoFlushTotalNanos.get() / 1_000_000.0 / n,
+                maiorFlushNanos / 1_000_000.0
+        );
+    }
+
+    // ----- Ciclo de vida -----
+
+    /**
+     * Reaplica o journal e abre o arquivo na criação do bean, antes de o servidor web aceitar
+     * requisições: nenhuma batida é aceita sem journal, nem carrega o dia do banco antes do replay.
+     */
+    @PostConstruct
+    public void iniciar() throws IOException {
+        if (!ativo) return;
+
+        if (journalPath.getParent() != null) Files.createDirectories(journalPath.getParent());
+        reaplicarJournal();
+        FileChannel canal = FileChannel.open(journalPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        canal.truncate(0);
+
+        rodando = true;
+        escritor = new Thread(this::loopEscritor, "fila-batidas-escritor");
+        escritor.setDaemon(true);
+        escritor.start();
+        // publicado por último: a partir daqui registrar() aceita batidas
+        journal = canal;
+        log.info("Ingestão write-behind de batidas ativa (journal={}, lote={})", journalPath, tamanhoLote);
+    }
+
+    @PreDestroy
+    public void parar() throws InterruptedException, IOException {
+        if (!rodando) return;
+        rodando = false;
+        escritor.join(TimeUnit.SECONDS.toMillis(30));
+        journalLock.lock();
+        try {
+            journal.close();
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    // ----- Internos -----
+
+    private EstadoDia estado(Long colaboradorId, LocalDate data) {
+        ChaveDia chave = new ChaveDia(colaboradorId, data);
+        EstadoDia estado = estados.get(chave);
+        if (estado != null) return estado;
+
+        EstadoDia carregado = new EstadoDia();
+        List<PontoDiaView> rows = pontoRepo.findMarcacoesNoPeriodo(colaboradorId, data, data);
+        if (!rows.isEmpty()) {
+            PontoDiaView r = rows.get(0);
+            carregado.slots[ENTRADA] = r.getHoraEntrada();
+            carregado.slots[INICIO_ALMOCO] = r.getInicioAlmoco();
+            carregado.slots[FIM_ALMOCO] = r.getFimAlmoco();
+            carregado.slots[SAIDA] = r.getHoraSaida();
+        }
+        EstadoDia atual = estados.putIfAbsent(chave, carregado);
+        return atual != null ? atual : carregado;
+    }
+
+    private void gravarJournal(BatidaPendente b) throws IOException {
+        byte[] linha = (b.toLinha() + "\n").getBytes(StandardCharsets.UTF_8);
+        journalLock.lock();
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(linha);
+            while (buf.hasRemaining()) journal.write(buf);
+            journal.force(false);
+            pendentes.incrementAndGet();
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    private void reaplicarJournal() throws IOException {
+        if (!Files.exists(journalPath)) return;
+        List<BatidaPendente> lote = new ArrayList<>(tamanhoLote);
+        int total = 0;
+        for (String linha : Files.readAllLines(journalPath, StandardCharsets.UTF_8)) {
+            if (linha.isBlank()) continue;
+            lote.add(BatidaPendente.daLinha(linha));
+            if (lote.size() == tamanhoLote) {
+                total += lote.size();
+                gravarIsolando(lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            total += lote.size();
+            gravarIsolando(lote);
+        }
+        if (total > 0) log.info("Journal de batidas reaplicado: {} batida(s)", total);
+    }
+
+    private void loopEscritor() {
+        List<BatidaPendente> lote = new ArrayList<>(tamanhoLote);
+        while (rodando || !fila.isEmpty() || !lote.isEmpty()) {
+            try {
+                if (lote.isEmpty()) {
+                    BatidaPendente primeira = fila.poll(intervaloMs, TimeUnit.MILLISECONDS);
+                    if (primeira == null) {
+                        limparEstadosAntigos();
+                        continue;
+                    }
+                    lote.add(primeira);
+                    fila.drainTo(lote, tamanhoLote - 1);
+                }
+                List<BatidaPendente> rejeitadas = gravarIsolando(lote);
+                concluirLote(lote);
+                // o dia de uma batida rejeitada volta a ser lido do banco na próxima batida
+                for (BatidaPendente b : rejeitadas) descartarEstado(b.colaboradorId(), b.data());
+                lote.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // só falhas transitórias chegam aqui: mantém o lote e tenta de novo;
+                // o journal garante que nada se perde se o processo cair
+                log.error("Falha ao gravar lote de {} batida(s); nova tentativa em {} ms", lote.size(), intervaloMs, e);
+                try {
+                    Thread.sleep(intervaloMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Grava o lote; se falhar por motivo não transitório, grava as batidas uma a uma e manda
+     * as que ainda falham para o arquivo de rejeitadas. Falhas transitórias sobem para quem chamou.
+     * Devolve as batidas rejeitadas.
+     */
+    private List<BatidaPendente> gravarIsolando(List<BatidaPendente> lote) throws IOException {
+        try {
+            gravarLote(lote);
+            return List.of();
+        } catch (RuntimeException e) {
+            if (transitoria(e)) throw e;
+            if (lote.size() > 1) {
+                log.warn("Lote de {} batida(s) recusado pelo banco; gravando uma a uma", lote.size(), e);
+            }
+        }
+        List<BatidaPendente> rejeitadas = new ArrayList<>();
+        for (BatidaPendente b : lote) {
+            try {
+                gravarLote(List.of(b));
+            } catch (RuntimeException e) {
+                if (transitoria(e)) throw e;
+                rejeitar(b, e);
+                rejeitadas.add(b);
+            }
+        }
+        return rejeitadas;
+    }
+
+    private void rejeitar(BatidaPendente b, Exception causa) throws IOException {
+        log.error("Batida rejeitada pelo banco e enviada para {}: {}", rejeitadasPath, b.toLinha(), causa);
+        if (rejeitadasPath.getParent() != null) Files.createDirectories(rejeitadasPath.getParent());
+        Files.writeString(rejeitadasPath, b.toLinha() + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        batidasRejeitadas.incrementAndGet();
+    }
+
+    /** Falha que deve passar sozinha (conexão, deadlock, timeout): repetir a mesma gravação. */
+    static boolean transitoria(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof TransientDataAccessException
+                    || t instanceof RecoverableDataAccessException
+                    || t instanceof DataAccessResourceFailureException
+                    || t instanceof CannotCreateTransactionException
+                    || t instanceof SQLTransientException
+                    || t instanceof SQLRecoverableException) return true;
+        }
+        return false;
+    }
+
+    /** Grava o lote numa única transação: os eventos e um batch JDBC por slot, na ordem entrada → saída. */
+    private void gravarLote(List<BatidaPendente> lote) {
+        long ini = System.nanoTime();
+        tx.executeWithoutResult(st -> {
+            jdbc.batchUpdate(EventoPontoRepository.SQL_REGISTRAR, lote, lote.size(), (ps, b) -> {
+                ps.setLong(1, b.colaboradorId());
+                ps.setObject(2, b.data());
+                ps.setObject(3, b.hora());
+                ps.setString(4, TipoMarcacao.values()[b.slot()].name());
+                ps.setString(5, OrigemRegistro.WEB.name());
+                ps.setObject(6, b.lat(), Types.DOUBLE);
+                ps.setObject(7, b.lng(), Types.DOUBLE);
+            });
+
+            for (int slot = ENTRADA; slot <= SAIDA; slot++) {
+                final int s = slot;
+                List<BatidaPendente> doSlot = lote.stream().filter(b -> b.slot() == s).toList();
+                if (doSlot.isEmpty()) continue;
+
+                int[][] afetados = jdbc.batchUpdate(SQL_SLOT[slot], doSlot, doSlot.size(), (ps, b) -> {
+                    if (s == ENTRADA) {
+                        ps.setLong(1, b.colaboradorId());
+                        ps.setObject(2, b.data());
+                        ps.setObject(3, b.hora());
+                        ps.setObject(4, b.lat(), Types.DOUBLE);
+                        ps.setObject(5, b.lng(), Types.DOUBLE);
+                    } else {
+                        ps.setObject(1, b.hora());
+                        ps.setObject(2, b.lat(), Types.DOUBLE);
+                        ps.setObject(3, b.lng(), Types.DOUBLE);
+                        ps.setLong(4, b.colaboradorId());
+                        ps.setObject(5, b.data());
+                    }
+                });
+
+                if (slot == SAIDA) {
+                    // saída fecha o dia: aplica o trabalhado no banco de horas (só se o slot foi de fato preenchido agora)
+                    for (int i = 0; i < doSlot.size(); i++) {
+                        if (afetados[0][i] == 0) continue;
+                        BatidaPendente b = doSlot.get(i);
+                        bancoHorasService.aplicarVariacaoDia(b.colaboradorId(), b.data(), 0, b.minutosDia());
+                    }
+                }
+            }
+        });
+
+        long dur = System.nanoTime() - ini;
+        lotes.incrementAndGet();
+        batidasGravadas.addAndGet(lote.size());
+        tempoFlushTotalNanos.addAndGet(dur);
+        ultimoFlushNanos = dur;
+        ultimoLote = lote.size();
+        if (dur > maiorFlushNanos) maiorFlushNanos = dur;
+        if (lote.size() > maiorLote) maiorLote = lote.size();
+    }
+
+    private void concluirLote(List<BatidaPendente> lote) {
+        for (BatidaPendente b : lote) {
+            EstadoDia estado = estados.get(new ChaveDia(b.colaboradorId(), b.data()));
+            if (estado != null) {
+                estado.lock.lock();
+                try {
+                    estado.pendentes--;
+                } finally {
+                    estado.lock.unlock();
+                }
+            }
+        }
+        if (pendentes.addAndGet(-lote.size()) == 0) {
+            journalLock.lock();
+            try {
+                if (pendentes.get() == 0) journal.truncate(0);
+            } catch (IOException e) {
+                // não é fatal: o journal só cresce até a próxima truncagem e o replay é idempotente
+                log.warn("Falha ao truncar o journal de batidas", e);
+            } finally {
+                journalLock.unlock();
+            }
+        }
+    }
+
+    private void limparEstadosAntigos() {
+        LocalDate hoje = LocalDate.now(ZONE);
+        estados.entrySet().removeIf(e -> e.getKey().data().isBefore(hoje) && e.getValue().pendentes == 0);
+    }
+
+    // ----- Tipos -----
+
+    private record ChaveDia(Long colaboradorId, LocalDate data) {}
+
+    private static final class EstadoDia {
+        final ReentrantLock lock = new ReentrantLock();
+        final LocalTime[] slots = new LocalTime[4];
+        int pendentes;
+
+        int proximoSlot() {
+            int i = 0;
+            while (i < slots.length && slots[i] != null) i++;
+            return i;
+        }
+    }
+
+    private record BatidaPendente(Long colaboradorId, LocalDate data, int slot, LocalTime hora,
+                                  Double lat, Double lng, int minutosDia) {
+
+        String toLinha() {
+            return colaboradorId + ";" + data + ";" + slot + ";" + hora + ";"
+                    + (lat == null ? "" : lat) + ";" + (lng == null ? "" : lng) + ";" + minutosDia;
+        }
+
+        static BatidaPendente daLinha(String linha) {
+            String[] p = linha.split(";", -1);
+            return new BatidaPendente(
+                    Long.valueOf(p[0]),
+                    LocalDate.parse(p[1]),
+                    Integer.parseInt(p[2]),
+                    LocalTime.parse(p[3]),
+                    p[4].isEmpty() ? null : Double.valueOf(p[4]),
+                    p[5].isEmpty() ? null : Double.valueOf(p[5]),
+                    Integer.parseInt(p[6])
+            );
+        }
+    }
+
+    /** Resultado da validação: batidas do dia após aceitar, ou status HTTP + mensagem de erro. */
+    public record ResultadoBatida(int batidas, int status, String erro) {
+        static ResultadoBatida ok(int batidas) { return new ResultadoBatida(batidas, 200, null); }
+        static ResultadoBatida erro(int status, String msg) { return new ResultadoBatida(0, status, msg); }
+        public boolean aceita() { return erro == null; }
+    }
+
+    public record Metricas(
+            boolean ativo,
+            long profundidadeFila,
+            long lotesGravados,
+            long batidasGravadas,
+            long batidasRejeitadas,
+            int ultimoLote,
+            int maiorLote,
+            double loteMedio,
+            double ultimoFlushMs,
+            double flushMedioMs,
+            double maiorFlushMs
+    ) {}
+}
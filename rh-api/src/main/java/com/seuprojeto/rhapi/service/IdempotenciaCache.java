@@ -0,0 +1,56 @@
+package com.seuprojeto.rhapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Tabela em memória (limitada e com expiração) das respostas recentes por Idempotency-Key.
+ * Uma retentativa com a mesma chave recebe a resposta original sem executar de novo;
+ * chamadas simultâneas com a mesma chave esperam a primeira terminar.
+ * Respostas 5xx e exceções não ficam guardadas.
+ */
+@Component
+public class IdempotenciaCache {
+
+    private final Cache<String, CompletableFuture<ResponseEntity<?>>> respostas;
+
+    public IdempotenciaCache(@Value("${app.idempotencia.max-entradas:10000}") long maxEntradas,
+                             @Value("${app.idempotencia.ttl-minutos:10}") long ttlMinutos) {
+        this.respostas = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutos))
+                .build();
+    }
+
+    public ResponseEntity<?> executar(String chave, Supplier<ResponseEntity<?>> acao) {
+        CompletableFuture<ResponseEntity<?>> nova = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<?>> existente = respostas.asMap().putIfAbsent(chave, nova);
+        if (existente != null) {
+            return existente.join();
+        }
+
+        try {
+            ResponseEntity<?> resp = acao.get();
+            if (resp.getStatusCode().is5xxServerError()) {
+                respostas.asMap().remove(chave, nova);
+            }
+            nova.complete(resp);
+            return resp;
+        } catch (RuntimeException e) {
+            respostas.asMap().remove(chave, nova);
+            nova.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public long tamanho() {
+        return respostas.estimatedSize();
+    }
+}
@@ -0,0 +1,407 @@
+package com.seuprojeto.rhapi.service;
+
+import com.seuprojeto.rhapi.domain.enums.OrigemRegistro;
+import com.seuprojeto.rhapi.domain.enums.TipoMarcacao;
+import com.seuprojeto.rhapi.repository.EventoPontoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Importação em massa do AFD dos relógios REP (Portaria 671; leiaute 1510 lido, mas sem PIS cadastrado).
+ *
+ * O arquivo é lido em streaming, linha a linha; o CPF de cada marcação é resolvido por uma tabela
+ * CPF → colaborador carregada uma vez no início. As marcações são dobradas em linhas diárias
+ * (até 4 slots) e gravadas em lotes JDBC com upsert. Dias que já têm batidas no banco são lidos
+ * travados (SELECT ... FOR UPDATE) no mesmo lote: as marcações existentes ficam nos seus slots e as
+ * importadas só ocupam slots vazios em que respeitam a ordem do dia; as que não cabem são excedentes.
+ * Cada marcação nova também entra em eventos_ponto (origem REP), no mesmo lote.
+ * O último NSR importado fica em importacoes_afd, por REP; linhas com NSR menor ou igual são ignoradas.
+ */
+@Service
+public class ImportacaoAfdService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacaoAfdService.class);
+
+    private static final int VAZIO = -1;
+
+    private static final String SQL_UPSERT = """
+            INSERT INTO registros_ponto
+                   (colaborador_id, data, hora_entrada, inicio_almoco, fim_almoco, hora_saida, origem)
+            VALUES (?, ?, ?, ?, ?, ?, 'REP')
+            ON DUPLICATE KEY UPDATE
+                   hora_entrada  = VALUES(hora_entrada),
+                   inicio_almoco = VALUES(inicio_almoco),
+                   fim_almoco    = VALUES(fim_almoco),
+                   hora_saida    = VALUES(hora_saida)
+            """;
+
+    /** Dias do lote que já existem, travados até o upsert; completado com "(?, ?)" por dia. */
+    private static final String SQL_EXISTENTES = """
+            SELECT colaborador_id, data, hora_entrada, inicio_almoco, fim_almoco, hora_saida
+              FROM registros_ponto
+             WHERE (colaborador_id, data) IN (%s)
+               FOR UPDATE
+            """;
+
+    private static final int DIAS_POR_SELECT = 1000;
+
+    // reimportação: a duplicata vira no-op; FK, NOT NULL e truncamento continuam sendo erro
+
+    private static final TipoMarcacao[] TIPOS = TipoMarcacao.values();
+
+    private static final String SQL_ULTIMO_NSR = """
+            INSERT INTO importacoes_afd (rep_identificacao, ultimo_nsr, ultimo_arquivo)
+            VALUES (?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                   ultimo_nsr = GREATEST(ultimo_nsr, VALUES(ultimo_nsr)),
+                   ultimo_arquivo = VALUES(ultimo_arquivo)
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final BancoHorasService bancoHorasService;
+    private final StatusDiaCache statusDiaCache;
+    private final FilaBatidasService filaBatidas;
+    private final int tamanhoLote;
+
+    public ImportacaoAfdService(JdbcTemplate jdbc,
+                                TransactionTemplate tx,
+                                BancoHorasService bancoHorasService,
+                                StatusDiaCache statusDiaCache,
+                                FilaBatidasService filaBatidas,
+                                @Value("${app.afd.tamanho-lote:5000}") int tamanhoLote) {
+        this.jdbc = jdbc;
+        this.tx = tx;
+        this.bancoHorasService = bancoHorasService;
+        this.statusDiaCache = statusDiaCache;
+        this.filaBatidas = filaBatidas;
+        this.tamanhoLote = Math.max(1, tamanhoLote);
+    }
+
+    /**
+     * Importa um AFD. {@code rep} é opcional quando o arquivo traz o cabeçalho (tipo 1).
+     * O stream não é fechado aqui.
+     */
+    public ResultadoImportacao importar(InputStream in, String rep, String nomeArquivo) throws IOException {
+        long ini = System.nanoTime();
+        Map<Long, Long> colabPorCpf = carregarCpfs();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.ISO_8859_1), 1 << 20);
+        String linha = reader.readLine();
+        if (rep == null || rep.isBlank()) {
+            rep = linha != null ? AfdParser.identificacaoRep(linha) : null;
+        }
+        if (rep == null || rep.isBlank()) {
+            throw new IllegalArgumentException("Identificação do REP não encontrada no cabeçalho; informe o parâmetro 'rep'");
+        }
+        rep = rep.strip();
+        long ultimoNsrAnterior = ultimoNsr(rep);
+
+        Contadores c = new Contadores();
+        // dia aberto por colaborador: chave (colaboradorId, epochDay) → 4 slots em segundo-do-dia
+        Map<Long, int[]> dias = new HashMap<>();
+        Set<ColabMes> meses = new HashSet<>();
+        long maiorDiaVisto = Long.MIN_VALUE;
+        long maiorNsr = ultimoNsrAnterior;
+
+        for (; linha != null; linha = reader.readLine()) {
+            c.linhas++;
+            AfdParser.Marcacao m;
+            try {
+                m = AfdParser.marcacao(linha);
+            } catch (NumberFormatException | DateTimeException e) {
+                c.invalidas++;
+                continue;
+            }
+            if (m == null) continue;
+            if (!ChaveColabDia.cabe(0, m.data())) {
+                c.invalidas++; // data anterior a 1970: erro de leitura do relógio
+                continue;
+            }
+            if (m.nsr() <= ultimoNsrAnterior) {
+                c.jaImportadas++;
+                continue;
+            }
+            if (m.nsr() > maiorNsr) maiorNsr = m.nsr();
+
+            Long colabId = m.cpf() != 0 ? colabPorCpf.get(m.cpf()) : null;
+            if (colabId == null) {
+                c.naoIdentificadas++;
+                continue;
+            }
+            c.marcacoes++;
+
+            long epochDay = m.data().toEpochDay();
+            int[] slots = dias.computeIfAbsent(chave(colabId, epochDay), k -> novoDia());
+            if (!adicionar(slots, m.segundoDoDia())) c.excedentes++;
+
+            // o AFD é cronológico (NSR sequencial): dias anteriores ao atual já estão completos
+            if (epochDay > maiorDiaVisto) {
+                maiorDiaVisto = epochDay;
+                if (dias.size() >= tamanhoLote) {
+                    c.dias += gravar(dias, epochDay, meses, c);
+                }
+            }
+        }
+        c.dias += gravar(dias, Long.MAX_VALUE, meses, c);
+
+        if (maiorNsr > ultimoNsrAnterior) {
+            final String r = rep;
+            final long nsr = maiorNsr;
+            tx.executeWithoutResult(st -> jdbc.update(SQL_ULTIMO_NSR, r, nsr, nomeArquivo));
+        }
+
+        // saldo do mês: os upserts mesclam com o que já havia, então recalcula cada competência afetada
+        for (ColabMes cm : meses) {
+            bancoHorasService.recalcularSaldoMensal(cm.colaboradorId(), cm.competencia());
+        }
+
+        long ms = (System.nanoTime() - ini) / 1_000_000;
+        log.info("AFD importado: rep={}, arquivo={}, marcacoes={}, dias={}, ignoradas(NSR)={}, sem colaborador={}, em {} ms",
+                rep, nomeArquivo, c.marcacoes, c.dias, c.jaImportadas, c.naoIdentificadas, ms);
+
+        return new ResultadoImportacao(rep, c.linhas, c.marcacoes, c.dias, c.jaImportadas,
+                c.naoIdentificadas, c.excedentes, c.invalidas, maiorNsr, meses.size(), ms);
+    }
+
+    // ----- Internos -----
+
+    private Map<Long, Long> carregarCpfs() {
+        Map<Long, Long> mapa = new HashMap<>();
+        jdbc.query("SELECT id, cpf FROM colaboradores", rs -> {
+            long cpf = AfdParser.documento(rs.getString(2));
+            if (cpf != 0) mapa.put(cpf, rs.getLong(1));
+        });
+        return mapa;
+    }
+
+    private long ultimoNsr(String rep) {
+        List<Long> r = jdbc.queryForList(
+                "SELECT ultimo_nsr FROM importacoes_afd WHERE rep_identificacao = ?", Long.class, rep);
+        return r.isEmpty() ? 0 : r.get(0);
+    }
+
+    /** Grava (e remove do mapa) os dias anteriores a {@code antesDe}; retorna quantos foram gravados. */
+    private int gravar(Map<Long, int[]> dias, long antesDe, Set<ColabMes> meses, Contadores c) {
+        List<Map.Entry<Long, int[]>> fechados = new ArrayList<>();
+        for (Iterator<Map.Entry<Long, int[]>> it = dias.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Long, int[]> e = it.next();
+            if (epochDay(e.getKey()) < antesDe) {
+                fechados.add(e);
+                it.remove();
+            }
+        }
+        if (fechados.isEmpty()) return 0;
+
+        for (int i = 0; i < fechados.size(); i += tamanhoLote) {
+            List<Map.Entry<Long, int[]>> lote = fechados.subList(i, Math.min(fechados.size(), i + tamanhoLote));
+
+            tx.executeWithoutResult(st -> {
+                // une com as batidas que o dia já tinha; a trava vale até o commit do lote
+                Map<Long, int[]> existentes = existentes(lote);
+                // eventos em vetores paralelos (chave do dia, slot, segundo): um por marcação nova, sem objeto por evento
+                long[] evChave = new long[lote.size() * 4];
+                int[] evSlot = new int[lote.size() * 4];
+                int[] evSeg = new int[lote.size() * 4];
+                int nEv = 0;
+                for (Map.Entry<Long, int[]> e : lote) {
+                    int[] s = e.getValue();
+                    int[] antes = existentes.get(e.getKey());
+                    if (antes != null) c.excedentes += mesclar(s, antes);
+                    for (int slot = 0; slot < 4 && s[slot] != VAZIO; slot++) {
+                        if (antes != null && contem(antes, s[slot])) continue;
+                        evChave[nEv] = e.getKey();
+                        evSlot[nEv] = slot;
+                        evSeg[nEv++] = s[slot];
+                    }
+                }
+                final int totalEv = nEv;
+
+                jdbc.batchUpdate(SQL_UPSERT, lote, lote.size(), (ps, e) -> {
+                    int[] s = e.getValue();
+                    ps.setLong(1, colaboradorId(e.getKey()));
+                    ps.setObject(2, LocalDate.ofEpochDay(epochDay(e.getKey())));
+                    for (int slot = 0; slot < 4; slot++) {
+                        if (s[slot] == VAZIO) ps.setNull(3 + slot, Types.TIME);
+                        else ps.setObject(3 + slot, LocalTime.ofSecondOfDay(s[slot]));
+                    }
+                });
+                if (totalEv == 0) return;
+                jdbc.batchUpdate(EventoPontoRepository.SQL_REGISTRAR, new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        long chave = evChave[i];
+                        ps.setLong(1, colaboradorId(chave));
+                        ps.setObject(2, LocalDate.ofEpochDay(epochDay(chave)));
+                        ps.setObject(3, LocalTime.ofSecondOfDay(evSeg[i]));
+                        ps.setString(4, TIPOS[evSlot[i]].name());
+                        ps.setString(5, OrigemRegistro.REP.name());
+                        ps.setNull(6, Types.DOUBLE);
+                        ps.setNull(7, Types.DOUBLE);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return totalEv;
+                    }
+                });
+            });
+        }
+
+        for (Map.Entry<Long, int[]> e : fechados) {
+            Long colabId = colaboradorId(e.getKey());
+            LocalDate data = LocalDate.ofEpochDay(epochDay(e.getKey()));
+            meses.add(new ColabMes(colabId, YearMonth.from(data)));
+            statusDiaCache.invalidar(colabId, data);
+            filaBatidas.descartarEstado(colabId, data);
+        }
+        return fechados.size();
+    }
+
+    /** Slots já gravados dos dias do lote (SELECT ... FOR UPDATE), por chave; só os dias que existem. */
+    private Map<Long, int[]> existentes(List<Map.Entry<Long, int[]>> lote) {
+        Map<Long, int[]> r = new HashMap<>();
+        for (int i = 0; i < lote.size(); i += DIAS_POR_SELECT) {
+            List<Map.Entry<Long, int[]>> parte = lote.subList(i, Math.min(lote.size(), i + DIAS_POR_SELECT));
+            Object[] args = new Object[parte.size() * 2];
+            int a = 0;
+            for (Map.Entry<Long, int[]> e : parte) {
+                args[a++] = colaboradorId(e.getKey());
+                args[a++] = LocalDate.ofEpochDay(epochDay(e.getKey()));
+            }
+            String sql = SQL_EXISTENTES.formatted(String.join(", ", Collections.nCopies(parte.size(), "(?, ?)")));
+            jdbc.query(sql, rs -> {
+                int[] slots = novoDia();
+                for (int slot = 0; slot < 4; slot++) {
+                    LocalTime t = rs.getObject(3 + slot, LocalTime.class);
+                    if (t != null) slots[slot] = t.toSecondOfDay();
+                }
+                r.put(chave(rs.getLong(1), rs.getObject(2, LocalDate.class).toEpochDay()), slots);
+            }, args);
+        }
+        return r;
+    }
+
+    /**
+     * Une as marcações importadas do dia ({@code dia}, ordenado e reescrito no lugar) com as que já
+     * estavam gravadas: cada existente fica no seu slot; cada importada vai para o primeiro slot vazio
+     * em que fica depois dos slots anteriores e antes dos seguintes. Repetidas são ignoradas.
+     * Retorna quantas importadas ficaram de fora por não caberem em nenhum slot vazio.
+     */
+    static int mesclar(int[] dia, int[] existentes) {
+        int[] importadas = dia.clone();
+        System.arraycopy(existentes, 0, dia, 0, dia.length);
+        int fora = 0;
+        for (int seg : importadas) {
+            if (seg == VAZIO || contem(existentes, seg)) continue;
+            int slot = slotLivre(dia, seg);
+            if (slot < 0) fora++;
+            else dia[slot] = seg;
+        }
+        return fora;
+    }
+
+    /** Primeiro slot vazio onde a marcação fica depois dos slots anteriores e antes dos seguintes, ou -1. */
+    private static int slotLivre(int[] slots, int seg) {
+        for (int slot = 0; slot < slots.length; slot++) {
+            if (slots[slot] != VAZIO) {
+                // daqui em diante a marcação ficaria antes de um marco anterior a ela
+                if (slots[slot] > seg) return -1;
+                continue;
+            }
+            boolean cabe = true;
+            for (int k = slot + 1; k < slots.length && cabe; k++) {
+                if (slots[k] != VAZIO && slots[k] < seg) cabe = false;
+            }
+            if (cabe) return slot;
+        }
+        return -1;
+    }
+
+    private static boolean contem(int[] slots, int seg) {
+        for (int s : slots) {
+            if (s == seg) return true;
+        }
+        return false;
+    }
+
+    private static int[] novoDia() {
+        return new int[] { VAZIO, VAZIO, VAZIO, VAZIO };
+    }
+
+    /** Insere a marcação em ordem; duplicatas do mesmo minuto são descartadas. Falso se o dia já tem 4. */
+    static boolean adicionar(int[] slots, int seg) {
+        int n = 0;
+        while (n < slots.length && slots[n] != VAZIO) {
+            if (slots[n] == seg) return true;
+            n++;
+        }
+        if (n == slots.length) return false;
+        int i = n;
+        while (i > 0 && slots[i - 1] > seg) {
+            slots[i] = slots[i - 1];
+            i--;
+        }
+        slots[i] = seg;
+        return true;
+    }
+
+    private static long chave(long colaboradorId, long epochDay) {
+        return ChaveColabDia.de(colaboradorId, epochDay);
+    }
+
+    private static long colaboradorId(long chave) {
+        return ChaveColabDia.colaboradorId(chave);
+    }
+
+    private static long epochDay(long chave) {
+        return ChaveColabDia.epochDay(chave);
+    }
+
+    private static final class Contadores {
+        long linhas, marcacoes, jaImportadas, naoIdentificadas, excedentes, invalidas;
+        int dias;
+    }
+
+    private record ColabMes(Long colaboradorId, YearMonth competencia) {}
+
+    public record ResultadoImportacao(
+            String rep,
+            long linhas,
+            long marcacoes,
+            int diasGravados,
+            long ignoradasNsr,
+            long semColaborador,
+            long excedentes,
+            long invalidas,
+            long ultimoNsr,
+            int competenciasRecalculadas,
+            long duracaoMs
+    ) {}
+}
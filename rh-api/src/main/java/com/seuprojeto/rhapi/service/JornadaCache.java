@@ -0,0 +1,164 @@
+package com.seuprojeto.rhapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.seuprojeto.rhapi.domain.JornadaTrabalho;
+import com.seuprojeto.rhapi.repository.JornadaTrabalhoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache local (por nó) da jornada de cada colaborador como vetor de 7 ints
+ * (minutos previstos de segunda a domingo, índice 0 = segunda).
+ *
+ * Colaborador sem jornada cadastrada fica em cache com JORNADA_PADRAO, para não consultar de novo.
+ * Relatórios pedem as jornadas de uma equipe de uma vez: as que faltam vêm numa consulta com IN.
+ * Os vetores são compartilhados entre threads e nunca devem ser alterados por quem os recebe.
+ * JornadaTrabalhoController.upsert substitui a entrada depois de gravar; com mais de um nó,
+ * app.jornada-cache.ttl-minutos limita o tempo de uma jornada desatualizada.
+ * {@link #aquecer} substitui as entradas pelo que está no banco (alterações diretas ou por migração
+ * passam a valer), exceto as gravadas por este nó depois que a consulta começou.
+ */
+@Component
+public class JornadaCache {
+
+    private static final Logger log = LoggerFactory.getLogger(JornadaCache.class);
+
+    private static final String SQL_TODAS = """
+            SELECT c.id, j.minutos_seg, j.minutos_ter, j.minutos_qua, j.minutos_qui,
+                   j.minutos_sex, j.minutos_sab, j.minutos_dom
+              FROM colaboradores c
+              LEFT JOIN jornadas_trabalho j ON j.colaborador_id = c.id
+            """;
+
+    private static final String SQL_POR_IDS = SQL_TODAS + " WHERE c.id IN (%s)";
+
+    // ids por consulta com IN (limita o tamanho do SQL e da lista de parâmetros)
+    private static final int IDS_POR_SELECT = 1000;
+
+    private final JornadaTrabalhoRepository repo;
+    private final JdbcTemplate jdbc;
+    private final Cache<Long, int[]> cache;
+    // colaborador -> System.nanoTime() da última atualização/invalidação; lido e podado por aquecer()
+    private final ConcurrentHashMap<Long, Long> alteradasEm = new ConcurrentHashMap<>();
+    private final boolean aquecerNaSubida;
+
+    public JornadaCache(JornadaTrabalhoRepository repo,
+                        JdbcTemplate jdbc,
+                        @Value("${app.jornada-cache.max-entradas:100000}") long maxEntradas,
+                        @Value("${app.jornada-cache.ttl-minutos:60}") long ttlMinutos,
+                        @Value("${app.jornada-cache.aquecer-na-subida:true}") boolean aquecerNaSubida) {
+        this.repo = repo;
+        this.jdbc = jdbc;
+        Caffeine<Object, Object> b = Caffeine.newBuilder().maximumSize(maxEntradas).recordStats();
+        if (ttlMinutos > 0) b.expireAfterWrite(Duration.ofMinutes(ttlMinutos));
+        this.cache = b.build();
+        this.aquecerNaSubida = aquecerNaSubida;
+    }
+
+    /** Minutos previstos por dia da semana do colaborador (somente leitura). */
+    public int[] minutosPorDiaSemana(Long colaboradorId) {
+        return cache.get(colaboradorId, id ->
+                BancoHorasService.minutosPorDiaSemana(repo.findByColaborador_Id(id).orElse(null)));
+    }
+
+    /**
+     * Jornadas de vários colaboradores (somente leitura), por id. As que não estão em cache vêm
+     * numa consulta só (em partes de até 1000 ids), em vez de uma por colaborador.
+     */
+    public Map<Long, int[]> minutosPorDiaSemana(Collection<Long> colaboradorIds) {
+        return cache.getAll(colaboradorIds, this::carregar);
+    }
+
+    /** Substitui a entrada após gravar a jornada (chamar depois do commit). */
+    public void atualizar(JornadaTrabalho j) {
+        alteradasEm.put(j.getColaborador().getId(), System.nanoTime());
+        cache.put(j.getColaborador().getId(), BancoHorasService.minutosPorDiaSemana(j));
+    }
+
+    public void invalidar(Long colaboradorId) {
+        alteradasEm.put(colaboradorId, System.nanoTime());
+        cache.invalidate(colaboradorId);
+    }
+
+    /**
+     * Carrega a jornada de todos os colaboradores em uma consulta e grava no cache.
+     * Usado na subida e por jobs em lote (fechamento) antes de ler as jornadas uma a uma.
+     */
+    public synchronized int aquecer() {
+        long ini = System.nanoTime();
+        Map<Long, int[]> todas = new HashMap<>();
+        jdbc.query(SQL_TODAS, rs -> {
+            todas.put(rs.getLong(1), jornada(rs));
+        });
+        // substitui o que estava em cache, menos as entradas alteradas depois do início da consulta
+        // (a linha lida pode ser anterior ao commit delas)
+        todas.keySet().removeIf(id -> {
+            Long t = alteradasEm.get(id);
+            return t != null && t - ini >= 0;
+        });
+        cache.putAll(todas);
+        alteradasEm.values().removeIf(t -> t - ini < 0);
+        log.info("Cache de jornadas aquecido: {} colaborador(es) em {} ms",
+                todas.size(), (System.nanoTime() - ini) / 1_000_000);
+        return todas.size();
+    }
+
+    /** Carga em lote do getAll; id sem colaborador ou sem jornada recebe JORNADA_PADRAO, como na busca unitária. */
+    private Map<Long, int[]> carregar(Set<? extends Long> ids) {
+        Map<Long, int[]> r = new HashMap<>(ids.size() * 2);
+        List<Long> lista = new ArrayList<>(ids);
+        for (Long id : lista) r.put(id, BancoHorasService.JORNADA_PADRAO);
+        for (int i = 0; i < lista.size(); i += IDS_POR_SELECT) {
+            List<Long> parte = lista.subList(i, Math.min(lista.size(), i + IDS_POR_SELECT));
+            jdbc.query(SQL_POR_IDS.formatted(String.join(", ", Collections.nCopies(parte.size(), "?"))), rs -> {
+                r.put(rs.getLong(1), jornada(rs));
+            }, parte.toArray());
+        }
+        return r;
+    }
+
+    /** Minutos seg..dom da linha (colunas 2..8); sem jornada cadastrada, JORNADA_PADRAO. */
+    private static int[] jornada(ResultSet rs) throws SQLException {
+        rs.getInt(2);
+        if (rs.wasNull()) return BancoHorasService.JORNADA_PADRAO;
+        int[] min = new int[7];
+        for (int d = 0; d < 7; d++) min[d] = rs.getInt(2 + d);
+        return min;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aoSubir() {
+        if (aquecerNaSubida) aquecer();
+    }
+
+    public Metricas metricas() {
+        CacheStats st = cache.stats();
+        return new Metricas(cache.estimatedSize(), st.hitCount(), st.missCount(), st.hitRate());
+    }
+
+    public record Metricas(
+            long entradas,
+            long acertos,
+            long falhas,
+            double taxaAcerto
+    ) {}
+}
@@ -0,0 +1,116 @@
+package com.seuprojeto.rhapi.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+
+/**
+ * Livro de horas de um colaborador num período: minutos previstos e trabalhados por dia,
+ * em int[] indexados pelo deslocamento em dias a partir do início (epochDay - epochDay inicial).
+ *
+ * O cálculo inteiro é feito com primitivos: horários como segundo do dia (-1 = sem marcação),
+ * dia da semana derivado do epochDay e a jornada como vetor de 7 posições (segunda..domingo).
+ * Nenhum LocalDate, Duration ou Integer é criado por dia; DTOs só são montados na borda da API.
+ * Uma instância não é thread-safe e pode ser reaproveitada com {@link #reiniciar(LocalDate, LocalDate)}.
+ */
+public final class LivroHoras {
+
+    /** Marcação ausente. */
+    public static final int SEM_MARCACAO = -1;
+
+    private long inicio;
+    private int dias;
+    private int[] previsto;
+    private int[] trabalhado;
+
+    public LivroHoras(LocalDate de, LocalDate ate) {
+        reiniciar(de, ate);
+    }
+
+    /** Prepara o livro para outro período, reaproveitando os arrays quando cabem. */
+    public LivroHoras reiniciar(LocalDate de, LocalDate ate) {
+        if (de.isAfter(ate)) throw new IllegalArgumentException("'de' deve ser antes ou igual a 'ate'");
+        this.inicio = de.toEpochDay();
+        this.dias = (int) (ate.toEpochDay() - inicio) + 1;
+        if (previsto == null || previsto.length < dias) {
+            previsto = new int[dias];
+            trabalhado = new int[dias];
+        } else {
+            Arrays.fill(previsto, 0, dias, 0);
+            Arrays.fill(trabalhado, 0, dias, 0);
+        }
+        return this;
+    }
+
+    /** Preenche o previsto de cada dia com a jornada (minutos por dia da semana, índice 0 = segunda). */
+    public LivroHoras aplicarJornada(int[] minutosPorDiaSemana) {
+        int dow = diaDaSemana(inicio);
+        for (int i = 0; i < dias; i++) {
+            previsto[i] = minutosPorDiaSemana[dow];
+            if (++dow == 7) dow = 0;
+        }
+        return this;
+    }
+
+    /**
+     * Zera o previsto dos dias de folga do ano que caem no período
+     * (máscara de CalendarioService: bit 0 = 1º de janeiro).
+     */
+    public LivroHoras aplicarFolgas(long[] mascara, int ano) {
+        long deslocamento = LocalDate.ofYearDay(ano, 1).toEpochDay() - inicio;
+        for (int w = 0; w < mascara.length; w++) {
+            for (long bits = mascara[w]; bits != 0; bits &= bits - 1) {
+                long i = deslocamento + (w << 6) + Long.numberOfTrailingZeros(bits);
+                if (i >= dias) return this;
+                if (i >= 0) previsto[(int) i] = 0;
+            }
+        }
+        return this;
+    }
+
+    /** Registra as marcações de um dia do período (segundos do dia ou {@link #SEM_MARCACAO}). */
+    public LivroHoras registrar(long epochDay, int entrada, int inicioAlmoco, int fimAlmoco, int saida) {
+        trabalhado[(int) (epochDay - inicio)] = minutos(entrada, inicioAlmoco, fimAlmoco, saida);
+        return this;
+    }
+
+    public int dias() { return dias; }
+
+    public long epochDay(int i) { return inicio + i; }
+
+    public int previsto(int i) { return previsto[i]; }
+
+    public int trabalhado(int i) { return trabalhado[i]; }
+
+    public int saldo(int i) { return trabalhado[i] - previsto[i]; }
+
+    public int saldoTotal() {
+        int total = 0;
+        for (int i = 0; i < dias; i++) total += trabalhado[i] - previsto[i];
+        return total;
+    }
+
+    // ----- Regras (primitivas) -----
+
+    /**
+     * Minutos trabalhados no dia: dia sem entrada ou saída vale 0, o almoço só é descontado
+     * com início e fim, minutos truncados e nunca negativo.
+     */
+    public static int minutos(int entrada, int inicioAlmoco, int fimAlmoco, int saida) {
+        if (entrada < 0 || saida < 0) return 0;
+        int total = (saida - entrada) / 60;
+        if (inicioAlmoco >= 0 && fimAlmoco >= 0) {
+            total -= (fimAlmoco - inicioAlmoco) / 60;
+        }
+        return Math.max(total, 0);
+    }
+
+    public static int segundos(LocalTime t) {
+        return t == null ? SEM_MARCACAO : t.toSecondOfDay();
+    }
+
+    /** Dia da semana do epochDay com índice 0 = segunda (1970-01-01 foi uma quinta). */
+    public static int diaDaSemana(long epochDay) {
+        return (int) Math.floorMod(epochDay + 3, 7L);
+    }
+}
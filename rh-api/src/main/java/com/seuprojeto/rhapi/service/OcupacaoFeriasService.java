@@ -0,0 +1,191 @@
+package com.seuprojeto.rhapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.seuprojeto.rhapi.domain.Colaborador;
+import com.seuprojeto.rhapi.domain.SolicitacaoFerias;
+import com.seuprojeto.rhapi.domain.enums.StatusFerias;
+import com.seuprojeto.rhapi.dto.DiaCoberturaDTO;
+import com.seuprojeto.rhapi.dto.OcupacaoFeriasDTO;
+import com.seuprojeto.rhapi.repository.ColaboradorRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Ocupação de férias por departamento: quantos colaboradores ativos estão fora em cada dia.
+ *
+ * Cada departamento tem um índice em memória (por nó) com as solicitações CRIADA e APROVADA
+ * como vetor de diferenças esparso: +1 no início e -1 no dia seguinte ao fim, num TreeMap por dia.
+ * Uma consulta soma os deltas anteriores ao período e varre o período: O(intervalos + dias).
+ *
+ * O índice é carregado na primeira consulta do departamento e atualizado por {@link #registrar}
+ * depois de cada criação ou troca de status. A atualização é idempotente por solicitação,
+ * então uma mudança que já veio na carga não conta duas vezes. Troca de departamento ou de ativo
+ * do colaborador derruba os índices afetados ({@link ColaboradorOcupacaoListener}). Com mais de um nó,
+ * app.ocupacao-ferias.ttl-minutos limita o tempo de um índice desatualizado.
+ */
+@Service
+public class OcupacaoFeriasService {
+
+    public static final int MAX_DIAS_CONSULTA = 366;
+
+    private static final String SQL_SOLICITACOES = """
+            SELECT s.id, s.data_inicio, s.data_fim, s.status
+              FROM solicitacoes_ferias s
+              JOIN colaboradores c ON c.id = s.colaborador_id
+             WHERE c.departamento_id = ? AND c.ativo = TRUE
+               AND s.status IN ('CRIADA', 'APROVADA')
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final ColaboradorRepository colabRepo;
+    private final Cache<Long, Indice> indices;
+
+    public OcupacaoFeriasService(JdbcTemplate jdbc,
+                                 ColaboradorRepository colabRepo,
+                                 @Value("${app.ocupacao-ferias.ttl-minutos:30}") long ttlMinutos) {
+        this.jdbc = jdbc;
+        this.colabRepo = colabRepo;
+        Caffeine<Object, Object> b = Caffeine.newBuilder();
+        if (ttlMinutos > 0) b.expireAfterWrite(Duration.ofMinutes(ttlMinutos));
+        this.indices = b.build();
+    }
+
+    // ----- Consultas -----
+
+    /** Ausentes (APROVADA) e pendentes (CRIADA) por dia do período, em colunas. */
+    public OcupacaoFeriasDTO ocupacao(Long departamentoId, LocalDate de, LocalDate ate) {
+        validar(de, ate);
+        int[][] c = indice(departamentoId).contar(de.toEpochDay(), ate.toEpochDay());
+        return new OcupacaoFeriasDTO(departamentoId, de, ate,
+                colabRepo.countByDepartamento_IdAndAtivoTrue(departamentoId), c[0], c[1]);
+    }
+
+    /**
+     * Dias do período em que ficam menos de {@code minimo} colaboradores presentes.
+     * Com {@code considerarPendentes}, as solicitações ainda não decididas também contam como ausência.
+     */
+    public List<DiaCoberturaDTO> diasAbaixoDe(Long departamentoId, LocalDate de, LocalDate ate,
+                                              int minimo, boolean considerarPendentes) {
+        validar(de, ate);
+        long colaboradores = colabRepo.countByDepartamento_IdAndAtivoTrue(departamentoId);
+        int[][] c = indice(departamentoId).contar(de.toEpochDay(), ate.toEpochDay());
+        List<DiaCoberturaDTO> r = new ArrayList<>();
+        for (int i = 0; i < c[0].length; i++) {
+            long presentes = colaboradores - c[0][i] - (considerarPendentes ? c[1][i] : 0);
+            if (presentes < minimo) {
+                r.add(new DiaCoberturaDTO(de.plusDays(i), presentes, c[0][i], c[1][i]));
+            }
+        }
+        return r;
+    }
+
+    private static void validar(LocalDate de, LocalDate ate) {
+        if (de.isAfter(ate)) throw new IllegalArgumentException("'de' deve ser antes ou igual a 'ate'");
+        if (ate.toEpochDay() - de.toEpochDay() >= MAX_DIAS_CONSULTA)
+            throw new IllegalArgumentException("Período máximo de " + MAX_DIAS_CONSULTA + " dias");
+    }
+
+    // ----- Manutenção do índice -----
+
+    /** Aplica o status atual da solicitação ao índice do departamento, se já carregado (chamar depois do commit). */
+    public void registrar(SolicitacaoFerias s) {
+        Colaborador c = s.getColaborador();
+        if (c.getDepartamento() == null) return;
+        Indice indice = indices.getIfPresent(c.getDepartamento().getId());
+        if (indice == null) return; // carregado do banco na próxima consulta
+        int tipo = Boolean.TRUE.equals(c.getAtivo()) ? tipo(s.getStatus()) : FORA;
+        indice.aplicar(s.getId(), s.getDataInicio().toEpochDay(), s.getDataFim().toEpochDay(), tipo);
+    }
+
+    public void invalidar(Long departamentoId) {
+        indices.invalidate(departamentoId);
+    }
+
+    private Indice indice(Long departamentoId) {
+        return indices.get(departamentoId, dep -> {
+            Indice indice = new Indice();
+            jdbc.query(SQL_SOLICITACOES, rs -> {
+                indice.aplicar(rs.getLong(1),
+                        rs.getObject(2, LocalDate.class).toEpochDay(),
+                        rs.getObject(3, LocalDate.class).toEpochDay(),
+                        tipo(StatusFerias.valueOf(rs.getString(4))));
+            }, dep);
+            return indice;
+        });
+    }
+
+    private static final int FORA = -1, AUSENTE = 0, PENDENTE = 1;
+
+    private static int tipo(StatusFerias status) {
+        return switch (status) {
+            case APROVADA -> AUSENTE;
+            case CRIADA -> PENDENTE;
+            default -> FORA;
+        };
+    }
+
+    /**
+     * Vetor de diferenças esparso do departamento: por epochDay, a variação de ausentes ([0])
+     * e de pendentes ([1]) naquele dia. {@code solicitacoes} guarda o que já foi aplicado
+     * de cada solicitação, para desfazer na troca de status.
+     */
+    static final class Indice {
+        private final TreeMap<Long, int[]> deltas = new TreeMap<>();
+        private final Map<Long, long[]> solicitacoes = new HashMap<>(); // id -> {de, ate, tipo}
+
+        synchronized void aplicar(long id, long de, long ate, int tipo) {
+            long[] atual = solicitacoes.get(id);
+            if (atual != null) {
+                if (atual[0] == de && atual[1] == ate && atual[2] == tipo) return;
+                somar(atual[0], atual[1], (int) atual[2], -1);
+                solicitacoes.remove(id);
+            }
+            if (tipo != FORA) {
+                somar(de, ate, tipo, +1);
+                solicitacoes.put(id, new long[] { de, ate, tipo });
+            }
+        }
+
+        private void somar(long de, long ate, int tipo, int sinal) {
+            mover(de, tipo, sinal);
+            mover(ate + 1, tipo, -sinal);
+        }
+
+        private void mover(long dia, int tipo, int v) {
+            int[] d = deltas.computeIfAbsent(dia, k -> new int[2]);
+            d[tipo] += v;
+            if (d[0] == 0 && d[1] == 0) deltas.remove(dia);
+        }
+
+        /** Contagens por dia de [de, ate]: {ausentes[], pendentes[]}. */
+        synchronized int[][] contar(long de, long ate) {
+            int n = (int) (ate - de) + 1;
+            int[] ausentes = new int[n];
+            int[] pendentes = new int[n];
+            int a = 0, p = 0;
+            for (int[] d : deltas.headMap(de, true).values()) { a += d[0]; p += d[1]; }
+            var mudancas = deltas.subMap(de, false, ate, true).entrySet().iterator();
+            var prox = mudancas.hasNext() ? mudancas.next() : null;
+            for (int i = 0; i < n; i++) {
+                while (prox != null && prox.getKey() == de + i) {
+                    a += prox.getValue()[0];
+                    p += prox.getValue()[1];
+                    prox = mudancas.hasNext() ? mudancas.next() : null;
+                }
+                ausentes[i] = a;
+                pendentes[i] = p;
+            }
+            return new int[][] { ausentes, pendentes };
+        }
+    }
+}
@@ -2,18 +2,15 @@ package com.seuprojeto.rhapi.service;
 
 import com.seuprojeto.rhapi.domain.AssinaturaMensal;
 import com.seuprojeto.rhapi.domain.Colaborador;
-import com.seuprojeto.rhapi.domain.enums.StatusFerias;
 import com.seuprojeto.rhapi.dto.ExtratoDiaDTO;
 import com.seuprojeto.rhapi.dto.ExtratoPeriodoDTO;
 import com.seuprojeto.rhapi.repository.AssinaturaMensalRepository;
 import com.seuprojeto.rhapi.repository.ColaboradorRepository;
-import com.seuprojeto.rhapi.repository.SolicitacaoFeriasRepository;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.Period;
 import java.time.YearMonth;
 import java.util.List;
 
@@ -23,18 +20,15 @@ public class RelatorioEmailService {
     private final EmailService emailService;
     private final BancoHorasService bancoHorasService;
     private final ColaboradorRepository colaboradorRepository;
-    private final SolicitacaoFeriasRepository feriasRepository;
     private final AssinaturaMensalRepository assinaturaMensalRepository;
 
     public RelatorioEmailService(EmailService emailService,
                                  BancoHorasService bancoHorasService,
                                  ColaboradorRepository colaboradorRepository,
-                                 SolicitacaoFeriasRepository feriasRepository,
                                  AssinaturaMensalRepository assinaturaMensalRepository) {
         this.emailService = emailService;
         this.bancoHorasService = bancoHorasService;
         this.colaboradorRepository = colaboradorRepository;
-        this.feriasRepository = feriasRepository;
         this.assinaturaMensalRepository = assinaturaMensalRepository;
     }
 
@@ -50,18 +44,12 @@ public class RelatorioEmailService {
         LocalDate de = competencia.atDay(1);
         LocalDate ate = competencia.atEndOfMonth();
 
-        Colaborador c = colaboradorRepository.findById(colaboradorId)
+        Colaborador c = colaboradorRepository.findComDepartamentoById(colaboradorId)
                 .orElseThrow(() -> new IllegalArgumentException("Colaborador não encontrado"));
 
         ExtratoPeriodoDTO extrato = bancoHorasService.extratoPeriodo(colaboradorId, de, ate);
 
-        LocalDate adm = c.getDataAdmissao() != null ? c.getDataAdmissao() : LocalDate.now();
-        long meses = Math.max(0, Period.between(adm, LocalDate.now()).toTotalMonths());
-        int diasDireito = (int) Math.min(30, Math.floor(meses * 2.5));
-        Integer consumidosOuPendentes = feriasRepository.sumDiasByStatuses(
-                c.getId(), List.of(StatusFerias.CRIADA, StatusFerias.APROVADA)
-        );
-        int saldoFeriasDias = Math.max(0, diasDireito - (consumidosOuPendentes == null ? 0 : consumidosOuPendentes));
+        int saldoFeriasDias = extrato.saldoFeriasDias(); // SaldoFeriasService, o mesmo número da API
 
         int compInt = ymToInt(competencia);
         AssinaturaMensal ass = assinaturaMensalRepository
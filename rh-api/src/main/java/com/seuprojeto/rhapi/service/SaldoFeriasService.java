@@ -0,0 +1,221 @@
+package com.seuprojeto.rhapi.service;
+
+import com.seuprojeto.rhapi.domain.Colaborador;
+import com.seuprojeto.rhapi.domain.SaldoFerias;
+import com.seuprojeto.rhapi.domain.SolicitacaoFerias;
+import com.seuprojeto.rhapi.domain.enums.StatusFerias;
+import com.seuprojeto.rhapi.dto.ResultadoStatusFeriasDTO;
+import com.seuprojeto.rhapi.repository.SaldoFeriasRepository;
+import com.seuprojeto.rhapi.repository.SolicitacaoFeriasRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Saldo de férias: fonte única para o extrato, o relatório por e-mail e a API.
+ *
+ * Regra: 2,5 dias adquiridos por mês completo desde a admissão, com teto de 30 (ciclo atual);
+ * solicitações em aberto (CRIADA) e aprovadas (APROVADA) consomem o saldo, que fica entre 0 e 30.
+ *
+ * Pendentes e aprovados são contadores em saldos_ferias, atualizados na mesma transação que grava
+ * a solicitação; os adquiridos saem da data de admissão. Ler o saldo custa uma busca pela PK.
+ */
+@Service
+public class SaldoFeriasService {
+
+    public static final int TETO_DIAS = 30;
+
+    /** Soma atômica de deltas aos contadores; cria a linha do colaborador na primeira solicitação. */
+    static final String SQL_SOMAR = """
+            INSERT INTO saldos_ferias (colaborador_id, dias_pendentes, dias_aprovados)
+            VALUES (?, ?, ?)
+            ON DUPLICATE KEY UPDATE dias_pendentes = dias_pendentes + VALUES(dias_pendentes),
+                                    dias_aprovados = dias_aprovados + VALUES(dias_aprovados)
+            """;
+
+    private final SolicitacaoFeriasRepository feriasRepo;
+    private final SaldoFeriasRepository saldoRepo;
+    private final JdbcTemplate jdbc;
+
+    public SaldoFeriasService(SolicitacaoFeriasRepository feriasRepo,
+                              SaldoFeriasRepository saldoRepo,
+                              JdbcTemplate jdbc) {
+        this.feriasRepo = feriasRepo;
+        this.saldoRepo = saldoRepo;
+        this.jdbc = jdbc;
+    }
+
+    // ----- Leitura -----
+
+    public Saldo saldo(Colaborador c) {
+        int adquiridos = diasAdquiridos(c.getDataAdmissao(), LocalDate.now());
+        Optional<SaldoFerias> contadores = saldoRepo.findById(c.getId());
+        int pendentes = contadores.map(SaldoFerias::getDiasPendentes).orElse(0);
+        int aprovados = contadores.map(SaldoFerias::getDiasAprovados).orElse(0);
+        return new Saldo(adquiridos, pendentes, aprovados, disponivel(adquiridos, pendentes, aprovados));
+    }
+
+    public int disponivel(Colaborador c) {
+        return saldo(c).disponivel();
+    }
+
+    // ----- Escrita (solicitação + contadores na mesma transação) -----
+
+    @Transactional
+    public SolicitacaoFerias criar(SolicitacaoFerias s) {
+        SolicitacaoFerias salva = feriasRepo.save(s);
+        somar(salva.getColaborador().getId(), salva.getDias(), null, salva.getStatus());
+        return salva;
+    }
+
+    /**
+     * Troca o status com a solicitação travada (duas aprovações simultâneas não contam em dobro).
+     * Vazio se a solicitação não existe.
+     */
+    @Transactional
+    public Optional<Alteracao> alterarStatus(Long solicitacaoId, StatusFerias novo) {
+        return feriasRepo.findParaAtualizar(solicitacaoId).map(s -> {
+            StatusFerias anterior = s.getStatus();
+            s.setStatus(novo);
+            SolicitacaoFerias salva = feriasRepo.save(s);
+            somar(salva.getColaborador().getId(), salva.getDias(), anterior, novo);
+            return new Alteracao(salva, anterior);
+        });
+    }
+
+    /**
+     * Aplica o mesmo status a várias solicitações em uma transação: um SELECT ... FOR UPDATE do lote,
+     * um SELECT das aprovadas dos colaboradores envolvidos, um UPDATE ... WHERE id IN (...) e um lote
+     * JDBC de somas nos contadores.
+     *
+     * Ao aprovar, a sobreposição é conferida contra as férias que ficarão aprovadas (as já aprovadas
+     * e as aprovadas antes no próprio lote, na ordem dos ids recebidos); quem conflita fica de fora
+     * com CONFLITO e o restante segue.
+     */
+    @Transactional
+    public Lote alterarStatusEmLote(List<Long> ids, StatusFerias novo) {
+        Set<Long> pedidos = new LinkedHashSet<>(ids);
+        Map<Long, SolicitacaoFerias> snapshot = feriasRepo.findParaAtualizarEmLote(pedidos).stream()
+                .collect(Collectors.toMap(SolicitacaoFerias::getId, Function.identity()));
+
+        Map<Long, List<SolicitacaoFerias>> aprovadas = new HashMap<>();
+        if (novo == StatusFerias.APROVADA && !snapshot.isEmpty()) {
+            Set<Long> colabs = snapshot.values().stream().map(s -> s.getColaborador().getId()).collect(Collectors.toSet());
+            for (SolicitacaoFerias s : feriasRepo.findByColaboradoresAndStatus(colabs, StatusFerias.APROVADA)) {
+                aprovadas.computeIfAbsent(s.getColaborador().getId(), k -> new ArrayList<>()).add(s);
+            }
+        }
+
+        List<ResultadoStatusFeriasDTO> resultados = new ArrayList<>(pedidos.size());
+        List<SolicitacaoFerias> mudam = new ArrayList<>();
+        for (Long id : pedidos) {
+            SolicitacaoFerias s = snapshot.get(id);
+            if (s == null) {
+                resultados.add(new ResultadoStatusFeriasDTO(id, "NAO_ENCONTRADA", null, "Solicitação não encontrada"));
+            } else if (s.getStatus() == novo) {
+                resultados.add(new ResultadoStatusFeriasDTO(id, "SEM_ALTERACAO", novo, null));
+            } else if (novo == StatusFerias.APROVADA && sobrepoe(s, aprovadas.get(s.getColaborador().getId()))) {
+                resultados.add(new ResultadoStatusFeriasDTO(id, "CONFLITO", s.getStatus(),
+                        "Sobrepõe férias aprovadas do colaborador"));
+            } else {
+                if (novo == StatusFerias.APROVADA) {
+                    aprovadas.computeIfAbsent(s.getColaborador().getId(), k -> new ArrayList<>()).add(s);
+                }
+                resultados.add(new ResultadoStatusFeriasDTO(id, "ALTERADA", novo, null));
+                mudam.add(s);
+            }
+        }
+        if (mudam.isEmpty()) return new Lote(resultados, List.of());
+
+        feriasRepo.atualizarStatus(mudam.stream().map(SolicitacaoFerias::getId).toList(), novo, Instant.now());
+
+        // contadores: um delta por colaborador; as entidades já estão desanexadas pelo UPDATE em massa
+        Map<Long, int[]> deltas = new HashMap<>();
+        List<Alteracao> alteradas = new ArrayList<>(mudam.size());
+        for (SolicitacaoFerias s : mudam) {
+            StatusFerias anterior = s.getStatus();
+            int[] d = deltas.computeIfAbsent(s.getColaborador().getId(), k -> new int[2]);
+            d[0] += delta(anterior, novo, StatusFerias.CRIADA) * s.getDias();
+            d[1] += delta(anterior, novo, StatusFerias.APROVADA) * s.getDias();
+            s.setStatus(novo);
+            alteradas.add(new Alteracao(s, anterior));
+        }
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((colab, d) -> {
+            if (d[0] != 0 || d[1] != 0) args.add(new Object[] { colab, d[0], d[1] });
+        });
+        if (!args.isEmpty()) jdbc.batchUpdate(SQL_SOMAR, args);
+
+        return new Lote(resultados, alteradas);
+    }
+
+    private static boolean sobrepoe(SolicitacaoFerias s, List<SolicitacaoFerias> aprovadas) {
+        if (aprovadas == null) return false;
+        for (SolicitacaoFerias a : aprovadas) {
+            if (!a.getId().equals(s.getId())
+                    && !a.getDataInicio().isAfter(s.getDataFim())
+                    && !a.getDataFim().isBefore(s.getDataInicio())) return true;
+        }
+        return false;
+    }
+
+    private void somar(Long colaboradorId, int dias, StatusFerias de, StatusFerias para) {
+        int pendentes = delta(de, para, StatusFerias.CRIADA);
+        int aprovados = delta(de, para, StatusFerias.APROVADA);
+        if (pendentes != 0 || aprovados != 0) {
+            jdbc.update(SQL_SOMAR, colaboradorId, pendentes * dias, aprovados * dias);
+        }
+    }
+
+    /** Variação (-1, 0, +1) do contador de {@code contado} quando o status vai de {@code de} para {@code para}. */
+    private static int delta(StatusFerias de, StatusFerias para, StatusFerias contado) {
+        return peso(para, contado) - peso(de, contado);
+    }
+
+    private static int peso(StatusFerias status, StatusFerias contado) {
+        return status == contado ? 1 : 0;
+    }
+
+    // ----- Regras -----
+
+    /** 2,5 dias por mês completo desde a admissão, até TETO_DIAS; 0 sem admissão ou admissão futura. */
+    public static int diasAdquiridos(LocalDate admissao, LocalDate hoje) {
+        if (admissao == null || hoje.isBefore(admissao)) return 0;
+        long meses = Period.between(admissao, hoje).toTotalMonths();
+        return (int) Math.min(TETO_DIAS, meses * 5 / 2);
+    }
+
+    public static int disponivel(int adquiridos, int pendentes, int aprovados) {
+        return Math.max(0, Math.min(TETO_DIAS, adquiridos - pendentes - aprovados));
+    }
+
+    public record Saldo(
+            int adquiridos,
+            int pendentes,
+            int aprovados,
+            int disponivel
+    ) {}
+
+    public record Alteracao(
+            SolicitacaoFerias solicitacao,
+            StatusFerias anterior
+    ) {}
+
+    public record Lote(
+            List<ResultadoStatusFeriasDTO> resultados,
+            List<Alteracao> alteradas
+    ) {}
+}
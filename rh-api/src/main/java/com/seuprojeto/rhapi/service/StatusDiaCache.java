@@ -0,0 +1,156 @@
+package com.seuprojeto.rhapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.seuprojeto.rhapi.repository.RegistroPontoRepository;
+import com.seuprojeto.rhapi.repository.projection.PontoDiaView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Cache local (por nó) das marcações do dia usadas pelo GET /pontos/status-dia.
+ *
+ * Chave: colaborador + dia, empacotados num long ({@link ChaveColabDia}); dias fora da faixa da chave
+ * (antes de 1970) vão direto ao banco, sem cache. Valor: os 4 slots como segundo-do-dia em ints
+ * (-1 = vazio), sem entidades. Preenchido na primeira leitura, atualizado no lugar por bater e
+ * criarManual e expirado na virada do dia em America/Sao_Paulo.
+ * Com mais de um nó, app.status-dia-cache.ttl-max-segundos limita o tempo de uma entrada desatualizada.
+ */
+@Component
+public class StatusDiaCache {
+
+    private static final ZoneId ZONE = ZoneId.of("America/Sao_Paulo");
+    private static final int VAZIO = -1;
+
+    // estimativa por entrada: nó do Caffeine (~64 B) + chave Long (16 B) + Marcas (16 B cabeçalho + 4 ints)
+    private static final int BYTES_POR_ENTRADA = 64 + 16 + 32;
+
+    private final RegistroPontoRepository repo;
+    private final Cache<Long, Marcas> cache;
+
+    public StatusDiaCache(RegistroPontoRepository repo,
+                          @Value("${app.status-dia-cache.max-entradas:50000}") long maxEntradas,
+                          @Value("${app.status-dia-cache.ttl-max-segundos:0}") long ttlMaxSegundos) {
+        this.repo = repo;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfter(new AteMeiaNoite(ttlMaxSegundos))
+                .recordStats()
+                .build();
+    }
+
+    /** Marcações do dia (entrada, início almoço, fim almoço, saída); null nos slots vazios. */
+    public LocalTime[] marcacoes(Long colaboradorId, LocalDate data) {
+        if (!ChaveColabDia.cabe(colaboradorId, data)) return carregar(colaboradorId, data).toLocalTimes();
+        Marcas m = cache.get(chave(colaboradorId, data), k -> carregar(colaboradorId, data));
+        return m.toLocalTimes();
+    }
+
+    /** Atualiza o dia no lugar após uma gravação (bater/lançamento manual). */
+    public void atualizar(Long colaboradorId, LocalDate data, LocalTime[] marcacoes) {
+        if (!ChaveColabDia.cabe(colaboradorId, data)) return;
+        cache.put(chave(colaboradorId, data), Marcas.de(marcacoes));
+    }
+
+    public void invalidar(Long colaboradorId, LocalDate data) {
+        if (!ChaveColabDia.cabe(colaboradorId, data)) return;
+        cache.invalidate(chave(colaboradorId, data));
+    }
+
+    public Metricas metricas() {
+        CacheStats st = cache.stats();
+        long entradas = cache.estimatedSize();
+        return new Metricas(entradas, st.hitCount(), st.missCount(), st.hitRate(),
+                entradas * BYTES_POR_ENTRADA);
+    }
+
+    // ----- Internos -----
+
+    private Marcas carregar(Long colaboradorId, LocalDate data) {
+        List<PontoDiaView> rows = repo.findMarcacoesNoPeriodo(colaboradorId, data, data);
+        if (rows.isEmpty()) return Marcas.de(new LocalTime[4]);
+        PontoDiaView r = rows.get(0);
+        return Marcas.de(new LocalTime[] {
+                r.getHoraEntrada(), r.getInicioAlmoco(), r.getFimAlmoco(), r.getHoraSaida()
+        });
+    }
+
+    private static long chave(Long colaboradorId, LocalDate data) {
+        return ChaveColabDia.de(colaboradorId, data);
+    }
+
+    /** Quatro slots em segundo-do-dia; -1 quando vazio. */
+    private static final class Marcas {
+        final int entrada, inicioAlmoco, fimAlmoco, saida;
+
+        private Marcas(int entrada, int inicioAlmoco, int fimAlmoco, int saida) {
+            this.entrada = entrada;
+            this.inicioAlmoco = inicioAlmoco;
+            this.fimAlmoco = fimAlmoco;
+            this.saida = saida;
+        }
+
+        static Marcas de(LocalTime[] m) {
+            return new Marcas(seg(m[0]), seg(m[1]), seg(m[2]), seg(m[3]));
+        }
+
+        LocalTime[] toLocalTimes() {
+            return new LocalTime[] { hora(entrada), hora(inicioAlmoco), hora(fimAlmoco), hora(saida) };
+        }
+
+        private static int seg(LocalTime t) {
+            return t == null ? VAZIO : t.toSecondOfDay();
+        }
+
+        private static LocalTime hora(int s) {
+            return s == VAZIO ? null : LocalTime.ofSecondOfDay(s);
+        }
+    }
+
+    /** Expira na próxima meia-noite de São Paulo (ou antes, se houver TTL máximo configurado). */
+    private static final class AteMeiaNoite implements Expiry<Long, Marcas> {
+        private final long ttlMaxNanos;
+
+        AteMeiaNoite(long ttlMaxSegundos) {
+            this.ttlMaxNanos = ttlMaxSegundos > 0 ? Duration.ofSeconds(ttlMaxSegundos).toNanos() : Long.MAX_VALUE;
+        }
+
+        private long ateMeiaNoite() {
+            ZonedDateTime agora = ZonedDateTime.now(ZONE);
+            ZonedDateTime meiaNoite = agora.toLocalDate().plusDays(1).atStartOfDay(ZONE);
+            return Math.min(Duration.between(agora, meiaNoite).toNanos(), ttlMaxNanos);
+        }
+
+        @Override
+        public long expireAfterCreate(Long key, Marcas value, long currentTime) {
+            return ateMeiaNoite();
+        }
+
+        @Override
+        public long expireAfterUpdate(Long key, Marcas value, long currentTime, long currentDuration) {
+            return ateMeiaNoite();
+        }
+
+        @Override
+        public long expireAfterRead(Long key, Marcas value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    public record Metricas(
+            long entradas,
+            long acertos,
+            long falhas,
+            double taxaAcerto,
+            long memoriaEstimadaBytes
+    ) {}
+}
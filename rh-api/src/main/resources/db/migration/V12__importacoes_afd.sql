@@ -0,0 +1,11 @@
+-- Controle de importação do AFD por relógio (REP): último NSR já carregado.
+-- Reimportar o mesmo arquivo (ou um trecho já lido) não gera novas marcações.
+CREATE TABLE IF NOT EXISTS importacoes_afd (
+  id BIGINT PRIMARY KEY AUTO_INCREMENT,
+  rep_identificacao VARCHAR(17) NOT NULL,
+  ultimo_nsr BIGINT NOT NULL,
+  ultimo_arquivo VARCHAR(255) NULL,
+  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  UNIQUE KEY uk_importacao_afd_rep (rep_identificacao)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -0,0 +1,19 @@
+-- Log de batidas somente-inserção (auditoria). registros_ponto continua como a visão diária
+-- derivada destes eventos, mantida na mesma transação.
+-- PK agrupada por colaborador e dia: as batidas de um dia ficam juntas no InnoDB.
+CREATE TABLE IF NOT EXISTS eventos_ponto (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  colaborador_id BIGINT NOT NULL,
+  data DATE NOT NULL,
+  hora TIME NOT NULL,
+  tipo VARCHAR(20) NOT NULL,   -- ENTRADA | INICIO_ALMOCO | FIM_ALMOCO | SAIDA
+  origem VARCHAR(20) NOT NULL, -- APP | WEB | MANUAL | REP
+  lat DOUBLE NULL,
+  lng DOUBLE NULL,
+  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (colaborador_id, data, id),
+  UNIQUE KEY uk_evento_id (id),
+  -- mesma marcação gravada de novo (replay do journal, reimportação) é ignorada
+  UNIQUE KEY uk_evento_marcacao (colaborador_id, data, tipo, hora),
+  CONSTRAINT fk_evento_colab FOREIGN KEY (colaborador_id) REFERENCES colaboradores(id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
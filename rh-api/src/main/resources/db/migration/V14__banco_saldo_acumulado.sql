@@ -0,0 +1,10 @@
+-- Saldo acumulado por competência (soma de prefixo): leitura do acumulado vira uma busca pontual
+-- pelo índice uk_banco_colab_comp, em vez de somar todos os meses anteriores.
+ALTER TABLE bancos_horas
+  ADD COLUMN saldo_acumulado_minutos INT NOT NULL DEFAULT 0 AFTER saldo_minutos;
+
+UPDATE bancos_horas b
+  JOIN (SELECT id,
+               SUM(saldo_minutos) OVER (PARTITION BY colaborador_id ORDER BY competencia) AS acumulado
+          FROM bancos_horas) x ON x.id = b.id
+   SET b.saldo_acumulado_minutos = x.acumulado;
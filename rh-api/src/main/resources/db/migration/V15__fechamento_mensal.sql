@@ -0,0 +1,28 @@
+-- Fechamento mensal em lote: uma linha por competência e uma por chunk de colaboradores.
+-- Chunks CONCLUIDO não são reprocessados, então o job retoma de onde parou após uma queda.
+CREATE TABLE IF NOT EXISTS fechamentos_mensais (
+  id BIGINT PRIMARY KEY AUTO_INCREMENT,
+  competencia VARCHAR(7) NOT NULL, -- formato YYYY-MM
+  status VARCHAR(20) NOT NULL,     -- EM_ANDAMENTO | CONCLUIDO | FALHOU
+  total_chunks INT NOT NULL,
+  total_colaboradores INT NOT NULL,
+  iniciado_em TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  concluido_em TIMESTAMP NULL,
+  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  UNIQUE KEY uk_fechamento_comp (competencia)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS fechamento_chunks (
+  fechamento_id BIGINT NOT NULL,
+  chunk INT NOT NULL,
+  primeiro_colaborador_id BIGINT NOT NULL,
+  ultimo_colaborador_id BIGINT NOT NULL,
+  colaboradores INT NOT NULL,
+  status VARCHAR(20) NOT NULL DEFAULT 'PENDENTE', -- PENDENTE | CONCLUIDO | FALHOU
+  duracao_ms BIGINT NULL,
+  erro VARCHAR(255) NULL,
+  concluido_em TIMESTAMP NULL,
+  PRIMARY KEY (fechamento_id, chunk),
+  CONSTRAINT fk_chunk_fechamento FOREIGN KEY (fechamento_id) REFERENCES fechamentos_mensais(id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -0,0 +1,15 @@
+-- Feriados e dias sem expediente (nacionais, estaduais, municipais ou de uma unidade).
+-- departamento_id NULL = vale para todos os departamentos.
+CREATE TABLE IF NOT EXISTS feriados (
+  id BIGINT PRIMARY KEY AUTO_INCREMENT,
+  data DATE NOT NULL,
+  descricao VARCHAR(120) NOT NULL,
+  departamento_id BIGINT NULL,
+  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  CONSTRAINT fk_feriado_departamento FOREIGN KEY (departamento_id) REFERENCES departamentos(id),
+  KEY idx_feriado_data (data)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- férias aprovadas por período (sobreposição com o calendário)
+CREATE INDEX idx_ferias_status_periodo ON solicitacoes_ferias (status, data_inicio, data_fim);
@@ -0,0 +1,17 @@
+-- Contadores de férias por colaborador (dias pendentes = CRIADA, aprovados = APROVADA), mantidos
+-- na mesma transação que cria ou muda o status de uma solicitação: ler o saldo vira uma busca pela PK,
+-- sem SUM sobre solicitacoes_ferias.
+CREATE TABLE saldos_ferias (
+  colaborador_id BIGINT PRIMARY KEY,
+  dias_pendentes INT NOT NULL DEFAULT 0,
+  dias_aprovados INT NOT NULL DEFAULT 0,
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  CONSTRAINT fk_saldo_ferias_colab FOREIGN KEY (colaborador_id) REFERENCES colaboradores(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT INTO saldos_ferias (colaborador_id, dias_pendentes, dias_aprovados)
+SELECT colaborador_id,
+       COALESCE(SUM(CASE WHEN status = 'CRIADA'   THEN dias END), 0),
+       COALESCE(SUM(CASE WHEN status = 'APROVADA' THEN dias END), 0)
+  FROM solicitacoes_ferias
+ GROUP BY colaborador_id;
@@ -0,0 +1,14 @@
+-- Índices das listagens por cursor (keyset): cada filtro é prefixo do índice e a chave do cursor
+-- vem em seguida, então a página é lida em ordem a partir do cursor, sem ordenar nem pular linhas.
+
+-- GET /colaboradores?departamentoId&ativo  (ordem: id)
+CREATE INDEX idx_colab_dep_ativo ON colaboradores (departamento_id, ativo, id);
+
+-- GET /ferias?colaboradorId&status  (ordem: id); idx_ferias_colab vira prefixo do novo índice
+CREATE INDEX idx_ferias_colab_status ON solicitacoes_ferias (colaborador_id, status, id);
+CREATE INDEX idx_ferias_status_id ON solicitacoes_ferias (status, id);
+DROP INDEX idx_ferias_colab ON solicitacoes_ferias;
+
+-- GET /pontos?colaboradorId&de&ate  (ordem: data, id): coberto por uk_ponto_colab_data,
+-- que no InnoDB já carrega o id; o índice duplicado de V2 sai.
+DROP INDEX idx_ponto_colab_data ON registros_ponto;
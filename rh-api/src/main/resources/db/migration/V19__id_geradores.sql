@@ -0,0 +1,17 @@
+-- Ids alocados em blocos (@TableGenerator com otimizador pooled do Hibernate): com IDENTITY o Hibernate
+-- precisa do INSERT para saber o id e não agrupa inserções em lote JDBC.
+-- Só para tabelas sem INSERT nativo: registros_ponto e bancos_horas recebem linhas por SQL/JDBC
+-- (fila de batidas, AFD, fechamento) com AUTO_INCREMENT e continuam em IDENTITY.
+--
+-- proximo = limite superior do próximo bloco de 50: o bloco entregue é (proximo - 49 .. proximo),
+-- então a semente é MAX(id) + 50 para o primeiro bloco começar depois do último id existente.
+CREATE TABLE id_geradores (
+  entidade VARCHAR(64) PRIMARY KEY,
+  proximo BIGINT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT INTO id_geradores (entidade, proximo)
+SELECT 'solicitacoes_ferias', COALESCE(MAX(id), 0) + 50 FROM solicitacoes_ferias;
+
+INSERT INTO id_geradores (entidade, proximo)
+SELECT 'assinaturas_mensais', COALESCE(MAX(id), 0) + 50 FROM assinaturas_mensais;
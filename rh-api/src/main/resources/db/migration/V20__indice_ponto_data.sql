@@ -0,0 +1,3 @@
+-- Exportação AFD (GET /pontos/afd/exportar): marcações lidas por dia, na ordem (data, colaborador_id),
+-- para que os NSRs sigam a ordem cronológica. Sem este índice o período inteiro passaria por filesort.
+CREATE INDEX idx_ponto_data_colab ON registros_ponto (data, colaborador_id);
@@ -0,0 +1,124 @@
+package com.seuprojeto.rhapi.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Toques simultâneos no botão: várias requisições /pontos/bater em paralelo para o mesmo colaborador e dia.
+ * A reivindicação atômica (RegistroPontoRepository.baterProximaMarcacao) tem de deixar exatamente 4 marcações,
+ * em ordem, cada uma aceita uma única vez e com um evento cada, sem atualização perdida.
+ * Roda contra um MySQL real (Testcontainers, com as migrações Flyway); sem Docker, é pulado.
+ */
+@SpringBootTest(properties = {
+		"spring.jpa.show-sql=false",
+		"logging.level.org.springframework.security=INFO",
+		"app.jornada-cache.aquecer-na-subida=false",
+		"app.ponto.write-behind.enabled=false"
+})
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+class BaterPontoConcorrenteTest {
+
+	@Container
+	@ServiceConnection
+	static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+	private static final int THREADS = 8;
+	private static final LocalDate DIA = LocalDate.of(2025, 3, 10);
+	private static final String EMAIL = "concorrente@ponto.local";
+
+	@Autowired MockMvc mvc;
+	@Autowired JdbcTemplate jdbc;
+
+	@Test
+	void toquesSimultaneosPreenchemAs4MarcacoesEmOrdemSemPerderNenhuma() throws Exception {
+		jdbc.update("INSERT INTO departamentos (nome) VALUES (?)", "Concorrência");
+		long dep = jdbc.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
+		jdbc.update("""
+				INSERT INTO colaboradores (nome, cpf, email, data_admissao, departamento_id)
+				VALUES (?, ?, ?, ?, ?)
+				""", "Colab Concorrente", "98765432100", EMAIL, DIA.minusYears(1), dep);
+		long colab = jdbc.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
+
+		// o horário da batida vem do relógio (em segundos): as threads insistem até o dia fechar,
+		// e em cada segundo várias disputam o mesmo slot
+		AtomicBoolean fechado = new AtomicBoolean();
+		AtomicInteger aceitas = new AtomicInteger();
+		AtomicInteger inesperadas = new AtomicInteger();
+		CountDownLatch largada = new CountDownLatch(1);
+		long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> tarefas = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			tarefas.add(pool.submit(() -> {
+				largada.await();
+				while (!fechado.get() && System.nanoTime() < limite) {
+					int status = mvc.perform(post("/pontos/bater")
+									.with(user(EMAIL).roles("COLABORADOR"))
+									.contentType(MediaType.APPLICATION_JSON)
+									.content("{\"data\":\"" + DIA + "\"}"))
+							.andReturn().getResponse().getStatus();
+					switch (status) {
+						case 200 -> aceitas.incrementAndGet();
+						case 400 -> { } // mesmo segundo do último marco: outra thread ganhou o slot
+						case 422 -> fechado.set(true);
+						default -> inesperadas.incrementAndGet();
+					}
+					Thread.sleep(50);
+				}
+				return null;
+			}));
+		}
+		largada.countDown();
+		for (Future<?> f : tarefas) f.get();
+		pool.shutdown();
+
+		assertThat(fechado).as("o dia chegou às 4 batidas").isTrue();
+		assertThat(inesperadas).hasValue(0);
+		assertThat(aceitas).as("cada slot aceito uma única vez").hasValue(4);
+
+		Map<String, Object> dia = jdbc.queryForMap("""
+				SELECT hora_entrada, inicio_almoco, fim_almoco, hora_saida
+				FROM registros_ponto WHERE colaborador_id = ? AND data = ?
+				""", colab, DIA);
+		List<LocalTime> marcas = new ArrayList<>();
+		for (Object v : dia.values()) {
+			assertThat(v).isNotNull();
+			marcas.add(((Time) v).toLocalTime());
+		}
+		assertThat(marcas).isSortedAccordingTo(LocalTime::compareTo).doesNotHaveDuplicates();
+
+		List<LocalTime> eventos = jdbc.queryForList("""
+				SELECT hora FROM eventos_ponto WHERE colaborador_id = ? AND data = ? ORDER BY hora
+				""", Time.class, colab, DIA).stream().map(Time::toLocalTime).toList();
+		assertThat(eventos).as("um evento por marcação aceita").containsExactlyElementsOf(marcas);
+	}
+}
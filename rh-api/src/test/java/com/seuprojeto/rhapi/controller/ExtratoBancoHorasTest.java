@@ -0,0 +1,132 @@
+package com.seuprojeto.rhapi.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.seuprojeto.rhapi.service.ExtratoStreamingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Extrato JSON x NDJSON no mesmo período: dias sem batida preenchidos, feriados de cada ano aplicados
+ * na virada (a máscara de folgas é trocada em 01/01) e a linha de totais igual ao extratoPeriodo,
+ * inclusive o banco acumulado (acumulado até a competência anterior + saldo do período).
+ * Roda contra um MySQL real (Testcontainers, com as migrações Flyway); sem Docker, é pulado.
+ */
+@SpringBootTest(properties = {
+		"spring.jpa.show-sql=false",
+		"logging.level.org.springframework.security=INFO",
+		"app.jornada-cache.aquecer-na-subida=false"
+})
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+@WithMockUser(roles = "RH")
+class ExtratoBancoHorasTest {
+
+	@Container
+	@ServiceConnection
+	static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+	// 23/12/2024 (segunda) .. 03/01/2025 (sexta): 12 dias, 10 úteis, feriados 25/12 e 01/01
+	private static final LocalDate DE = LocalDate.of(2024, 12, 23);
+	private static final LocalDate ATE = LocalDate.of(2025, 1, 3);
+	private static final int ACUMULADO_NOVEMBRO = 100;
+
+	@Autowired MockMvc mvc;
+	@Autowired JdbcTemplate jdbc;
+	@Autowired ObjectMapper mapper;
+	@Autowired ExtratoStreamingService extratoStreaming;
+
+	@Test
+	void ndjsonEJsonConcordamNosDiasENosTotais() throws Exception {
+		jdbc.update("INSERT INTO departamentos (nome) VALUES (?)", "Extrato");
+		long dep = jdbc.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
+		jdbc.update("""
+				INSERT INTO colaboradores (nome, cpf, email, data_admissao, departamento_id)
+				VALUES (?, ?, ?, ?, ?)
+				""", "Colab Extrato", "72000000001", "extrato@banco.local", LocalDate.of(2020, 1, 2), dep);
+		long colab = jdbc.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
+
+		jdbc.update("INSERT INTO feriados (data, descricao) VALUES (?, ?)", LocalDate.of(2024, 12, 25), "Natal");
+		jdbc.update("INSERT INTO feriados (data, descricao) VALUES (?, ?)", LocalDate.of(2025, 1, 1), "Confraternização");
+		jdbc.update("""
+				INSERT INTO bancos_horas (colaborador_id, competencia, saldo_minutos, saldo_acumulado_minutos)
+				VALUES (?, '2024-11', ?, ?)
+				""", colab, ACUMULADO_NOVEMBRO, ACUMULADO_NOVEMBRO);
+		// só dois dias com batida, um em cada ano; o resto do período fica sem marcação
+		for (LocalDate d : List.of(LocalDate.of(2024, 12, 23), LocalDate.of(2025, 1, 2))) {
+			jdbc.update("""
+					INSERT INTO registros_ponto (colaborador_id, data, hora_entrada, inicio_almoco, fim_almoco, hora_saida, origem)
+					VALUES (?, ?, '08:00', '12:00', '13:00', '17:30', 'WEB')
+					""", colab, d);
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		extratoStreaming.escrever(colab, DE, ATE, out);
+		List<JsonNode> linhas = new ArrayList<>();
+		for (String l : out.toString(StandardCharsets.UTF_8).split("\n")) linhas.add(mapper.readTree(l));
+		List<JsonNode> dias = linhas.subList(0, linhas.size() - 1);
+		JsonNode total = linhas.get(linhas.size() - 1);
+
+		assertThat(dias).hasSize(12);
+		assertThat(dias).extracting(d -> d.get("data").asText()).startsWith("2024-12-23").endsWith("2025-01-03");
+		assertThat(dia(dias, "2024-12-23").get("trabalhadoMin").asInt()).isEqualTo(510);
+		assertThat(dia(dias, "2024-12-24").get("trabalhadoMin").asInt()).isZero();
+		assertThat(dia(dias, "2024-12-24").get("previstoMin").asInt()).isEqualTo(480);
+		assertThat(dia(dias, "2024-12-25").get("previstoMin").asInt()).isZero();
+		assertThat(dia(dias, "2024-12-28").get("previstoMin").asInt()).isZero();
+		assertThat(dia(dias, "2024-12-31").get("previstoMin").asInt()).isEqualTo(480);
+		assertThat(dia(dias, "2025-01-01").get("previstoMin").asInt()).isZero();
+		assertThat(dia(dias, "2025-01-02").get("previstoMin").asInt()).isEqualTo(480);
+
+		int saldo = 2 * 510 - 8 * 480;
+		assertThat(total.get("tipo").asText()).isEqualTo("total");
+		assertThat(total.get("dias").asInt()).isEqualTo(12);
+		assertThat(total.get("previstoMin").asInt()).isEqualTo(8 * 480);
+		assertThat(total.get("trabalhadoMin").asInt()).isEqualTo(2 * 510);
+		assertThat(total.get("saldoTotalMin").asInt()).isEqualTo(saldo);
+		assertThat(total.get("bancoAcumuladoMin").asInt()).isEqualTo(ACUMULADO_NOVEMBRO + saldo);
+
+		String json = mvc.perform(get("/banco-horas/extrato")
+						.param("colaboradorId", String.valueOf(colab))
+						.param("de", DE.toString())
+						.param("ate", ATE.toString()))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		JsonNode extrato = mapper.readTree(json);
+
+		assertThat(extrato.get("saldoTotalMin").asInt()).isEqualTo(total.get("saldoTotalMin").asInt());
+		assertThat(extrato.get("bancoAcumuladoMin").asInt()).isEqualTo(total.get("bancoAcumuladoMin").asInt());
+		assertThat(extrato.get("dias")).hasSize(dias.size());
+		for (int i = 0; i < dias.size(); i++) {
+			JsonNode d = extrato.get("dias").get(i);
+			assertThat(d.get("data").asText()).isEqualTo(dias.get(i).get("data").asText());
+			assertThat(d.get("previstoMin").asInt()).as(d.get("data").asText())
+					.isEqualTo(dias.get(i).get("previstoMin").asInt());
+			assertThat(d.get("trabalhadoMin").asInt()).as(d.get("data").asText())
+					.isEqualTo(dias.get(i).get("trabalhadoMin").asInt());
+		}
+	}
+
+	private static JsonNode dia(List<JsonNode> dias, String data) {
+		return dias.stream().filter(d -> data.equals(d.get("data").asText())).findFirst().orElseThrow();
+	}
+}
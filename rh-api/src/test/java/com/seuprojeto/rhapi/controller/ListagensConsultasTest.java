@@ -0,0 +1,189 @@
+package com.seuprojeto.rhapi.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Consultas por página nas listagens: com as associações LAZY e as projeções, cada página é um único
+ * SELECT, qualquer que seja o número de departamentos e colaboradores nela (sem N+1).
+ * Roda contra um MySQL real (Testcontainers, com as migrações Flyway); sem Docker, é pulado.
+ */
+@SpringBootTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"spring.jpa.show-sql=false",
+		"logging.level.org.springframework.security=INFO",
+		"app.jornada-cache.aquecer-na-subida=false"
+})
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+@WithMockUser(roles = "ADMIN")
+class ListagensConsultasTest {
+
+	@Container
+	@ServiceConnection
+	static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+	private static final int DEPARTAMENTOS = 3;
+	private static final int POR_DEPARTAMENTO = 4;
+	private static final LocalDate DIA = LocalDate.of(2025, 3, 10);
+
+	private static boolean semeado;
+	private static long primeiroDepartamento;
+
+	@Autowired MockMvc mvc;
+	@Autowired JdbcTemplate jdbc;
+	@Autowired EntityManagerFactory emf;
+
+	@BeforeEach
+	void semear() {
+		if (semeado) return;
+		for (int d = 0; d < DEPARTAMENTOS; d++) {
+			jdbc.update("INSERT INTO departamentos (nome) VALUES (?)", "Consultas " + d);
+			long dep = jdbc.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
+			if (d == 0) primeiroDepartamento = dep;
+			for (int c = 0; c < POR_DEPARTAMENTO; c++) {
+				String sufixo = d + "" + c;
+				jdbc.update("""
+						INSERT INTO colaboradores (nome, cpf, email, data_admissao, departamento_id)
+						VALUES (?, ?, ?, ?, ?)
+						""", "Colab " + sufixo, "900000000" + sufixo, "colab" + sufixo + "@consultas.local",
+						DIA.minusYears(2), dep);
+				long colab = jdbc.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
+				for (int dia = 0; dia < 2; dia++) {
+					jdbc.update("""
+							INSERT INTO registros_ponto (colaborador_id, data, hora_entrada, hora_saida, origem)
+							VALUES (?, ?, '08:00', '17:00', 'WEB')
+							""", colab, DIA.plusDays(dia));
+				}
+				jdbc.update("""
+						INSERT INTO solicitacoes_ferias (colaborador_id, data_inicio, data_fim, dias, status)
+						VALUES (?, ?, ?, 5, 'CRIADA')
+						""", colab, DIA.plusMonths(1), DIA.plusMonths(1).plusDays(4));
+			}
+		}
+		semeado = true;
+	}
+
+	@Test
+	void colaboradoresDeVariosDepartamentosEmUmSelect() throws Exception {
+		Statistics st = estatisticasZeradas();
+
+		mvc.perform(get("/colaboradores").param("limite", "50"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.itens.length()").value(greaterThanOrEqualTo(DEPARTAMENTOS * POR_DEPARTAMENTO)))
+				.andExpect(jsonPath("$.itens[0].departamento").exists());
+
+		assertThat(st.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void feriasDeVariosDepartamentosEmUmSelect() throws Exception {
+		Statistics st = estatisticasZeradas();
+
+		mvc.perform(get("/ferias").param("limite", "50"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.itens.length()").value(DEPARTAMENTOS * POR_DEPARTAMENTO));
+
+		assertThat(st.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void pontosDoDepartamentoEmUmSelect() throws Exception {
+		Statistics st = estatisticasZeradas();
+
+		mvc.perform(get("/pontos")
+						.param("departamentoId", String.valueOf(primeiroDepartamento))
+						.param("de", DIA.toString())
+						.param("ate", DIA.plusDays(1).toString())
+						.param("limite", "50"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.itens.length()").value(POR_DEPARTAMENTO * 2));
+
+		assertThat(st.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void paginasSeguintesTambemCustamUmSelect() throws Exception {
+		Statistics st = estatisticasZeradas();
+
+		mvc.perform(get("/ferias").param("limite", "5"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.itens.length()").value(5))
+				.andExpect(jsonPath("$.proximoCursor").exists());
+		mvc.perform(get("/pontos")
+						.param("departamentoId", String.valueOf(primeiroDepartamento))
+						.param("de", DIA.toString())
+						.param("ate", DIA.plusDays(1).toString())
+						.param("limite", "3"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.itens.length()").value(3));
+
+		assertThat(st.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void cursorDosPontosPercorreODepartamentoSemRepetirNemPular() throws Exception {
+		List<String> vistos = new ArrayList<>();
+		String cursor = null;
+		do {
+			var req = get("/pontos")
+					.param("departamentoId", String.valueOf(primeiroDepartamento))
+					.param("de", DIA.toString())
+					.param("ate", DIA.plusDays(1).toString())
+					.param("limite", "3");
+			if (cursor != null) req.param("cursor", cursor);
+			String corpo = mvc.perform(req).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+			List<Map<String, Object>> itens = JsonPath.read(corpo, "$.itens");
+			for (Map<String, Object> i : itens) vistos.add(i.get("colaboradorId") + "_" + i.get("data"));
+			cursor = JsonPath.read(corpo, "$.proximoCursor");
+		} while (cursor != null);
+
+		// ordem (colaborador, data); cada proximoCursor é a chave "colabId_data" da última linha
+		assertThat(vistos).hasSize(POR_DEPARTAMENTO * 2).doesNotHaveDuplicates();
+		assertThat(vistos).isSortedAccordingTo(Comparator
+				.comparingLong((String k) -> Long.parseLong(k.substring(0, k.indexOf('_'))))
+				.thenComparing(k -> k.substring(k.indexOf('_') + 1)));
+	}
+
+	@Test
+	@WithMockUser(roles = "COLABORADOR")
+	void colaboradorNaoListaPontosDoDepartamento() throws Exception {
+		mvc.perform(get("/pontos")
+						.param("departamentoId", String.valueOf(primeiroDepartamento))
+						.param("de", DIA.toString())
+						.param("ate", DIA.plusDays(1).toString()))
+				.andExpect(status().isForbidden());
+	}
+
+	private Statistics estatisticasZeradas() {
+		Statistics st = emf.unwrap(SessionFactory.class).getStatistics();
+		st.clear();
+		return st;
+	}
+}
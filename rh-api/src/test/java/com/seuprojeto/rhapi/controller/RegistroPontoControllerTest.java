@@ -0,0 +1,106 @@
+package com.seuprojeto.rhapi.controller;
+
+import com.seuprojeto.rhapi.domain.enums.OrigemRegistro;
+import com.seuprojeto.rhapi.dto.PaginaDTO;
+import com.seuprojeto.rhapi.dto.RegistroPontoDTO;
+import com.seuprojeto.rhapi.repository.RegistroPontoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class RegistroPontoControllerTest {
+
+	private static final LocalDate DE = LocalDate.of(2025, 3, 1);
+	private static final LocalDate ATE = LocalDate.of(2025, 3, 31);
+
+	private final RegistroPontoRepository repo = mock(RegistroPontoRepository.class);
+	private final RegistroPontoController controller =
+			new RegistroPontoController(repo, null, null, null, null, null, null, null, null);
+
+	@AfterEach
+	void limparAutenticacao() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void cursorIdaEVolta() {
+		String cursor = RegistroPontoController.CursorPonto.de(ponto(42L, LocalDate.of(2025, 3, 10)));
+
+		assertThat(cursor).isEqualTo("42_2025-03-10");
+		assertThat(RegistroPontoController.CursorPonto.ler(cursor))
+				.isEqualTo(new RegistroPontoController.CursorPonto(42L, LocalDate.of(2025, 3, 10)));
+	}
+
+	@Test
+	void cursorMalFormadoEhRecusado() {
+		for (String invalido : List.of("", "42", "_2025-03-10", "x_2025-03-10", "42_2025-13-01", "42-2025-03-10")) {
+			assertThatThrownBy(() -> RegistroPontoController.CursorPonto.ler(invalido))
+					.as(invalido).isInstanceOf(IllegalArgumentException.class);
+		}
+	}
+
+	@Test
+	void proximaPaginaContinuaDoColaboradorEDiaDoCursor() {
+		autenticar("ROLE_GESTOR");
+		when(repo.pagina(isNull(), eq(5L), eq(DE), eq(ATE), eq(0L), eq(DE.minusDays(1)), any(Limit.class)))
+				.thenReturn(List.of(ponto(7L, LocalDate.of(2025, 3, 10)),
+						ponto(7L, LocalDate.of(2025, 3, 11)),
+						ponto(9L, LocalDate.of(2025, 3, 3))));
+
+		ResponseEntity<?> primeira = controller.listar(null, 5L, DE, ATE, null, 2);
+		String cursor = ((PaginaDTO<?>) primeira.getBody()).proximoCursor();
+		assertThat(cursor).isEqualTo("7_2025-03-11");
+
+		controller.listar(null, 5L, DE, ATE, cursor, 2);
+		verify(repo).pagina(isNull(), eq(5L), eq(DE), eq(ATE), eq(7L), eq(LocalDate.of(2025, 3, 11)), any(Limit.class));
+	}
+
+	@Test
+	void colaboradorNaoListaODepartamento() {
+		autenticar("ROLE_COLABORADOR");
+
+		ResponseEntity<?> r = controller.listar(null, 5L, DE, ATE, null, null);
+
+		assertThat(r.getStatusCode().value()).isEqualTo(403);
+		verifyNoInteractions(repo);
+	}
+
+	@Test
+	void cursorInvalidoDa400() {
+		autenticar("ROLE_RH");
+
+		ResponseEntity<?> r = controller.listar(null, 5L, DE, ATE, "abc", null);
+
+		assertThat(r.getStatusCode().value()).isEqualTo(400);
+		verify(repo, never())
+				.pagina(any(), any(), any(), any(), anyLong(), any(), any());
+	}
+
+	private static void autenticar(String papel) {
+		SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("ana@empresa.com", null, papel));
+	}
+
+	private static RegistroPontoDTO ponto(Long colaboradorId, LocalDate data) {
+		return new RegistroPontoDTO(null, colaboradorId, data, LocalTime.of(8, 0), null, null, LocalTime.of(17, 0),
+				OrigemRegistro.WEB, null, null, null);
+	}
+}
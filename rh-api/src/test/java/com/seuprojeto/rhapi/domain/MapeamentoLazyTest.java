@@ -0,0 +1,45 @@
+package com.seuprojeto.rhapi.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToOne;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Associações *ToOne são LAZY: as leituras usam projeções, e um EAGER esquecido volta a gerar
+ * junções ou um SELECT por linha nas listagens.
+ */
+class MapeamentoLazyTest {
+
+	@Test
+	void associacoesToOneSaoLazy() throws Exception {
+		var scanner = new ClassPathScanningCandidateComponentProvider(false);
+		scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+
+		List<String> eager = new ArrayList<>();
+		int associacoes = 0;
+		for (BeanDefinition bd : scanner.findCandidateComponents("com.seuprojeto.rhapi.domain")) {
+			for (Field f : Class.forName(bd.getBeanClassName()).getDeclaredFields()) {
+				ManyToOne m = f.getAnnotation(ManyToOne.class);
+				OneToOne o = f.getAnnotation(OneToOne.class);
+				if (m == null && o == null) continue;
+				associacoes++;
+				FetchType fetch = m != null ? m.fetch() : o.fetch();
+				if (fetch != FetchType.LAZY) eager.add(f.getDeclaringClass().getSimpleName() + "." + f.getName());
+			}
+		}
+
+		assertThat(associacoes).isPositive();
+		assertThat(eager).isEmpty();
+	}
+}
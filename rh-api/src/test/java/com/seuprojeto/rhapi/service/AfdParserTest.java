@@ -0,0 +1,111 @@
+package com.seuprojeto.rhapi.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AfdParserTest {
+
+	@Test
+	void marcacaoLeiaute671() {
+		AfdParser.Marcacao m = AfdParser.marcacao("0000001233" + "2025-03-10T08:01:00-0300" + "052998224725" + "1A2B");
+
+		assertThat(m.nsr()).isEqualTo(123);
+		assertThat(m.data()).isEqualTo(LocalDate.of(2025, 3, 10));
+		assertThat(m.segundoDoDia()).isEqualTo(LocalTime.of(8, 1).toSecondOfDay());
+		assertThat(m.cpf()).isEqualTo(52998224725L);
+		assertThat(m.pis()).isZero();
+	}
+
+	@Test
+	void marcacaoLeiaute1510() {
+		AfdParser.Marcacao m = AfdParser.marcacao("0000001243" + "10032025" + "1742" + "123456789012");
+
+		assertThat(m.nsr()).isEqualTo(124);
+		assertThat(m.data()).isEqualTo(LocalDate.of(2025, 3, 10));
+		assertThat(m.segundoDoDia()).isEqualTo(LocalTime.of(17, 42).toSecondOfDay());
+		assertThat(m.cpf()).isZero();
+		assertThat(m.pis()).isEqualTo(123456789012L);
+	}
+
+	@Test
+	void outrosTiposNaoSaoMarcacao() {
+		assertThat(AfdParser.marcacao("0000001254" + "2025-03-10T08:00:00-0300")).isNull();
+		assertThat(AfdParser.marcacao("999999999")).isNull();
+	}
+
+	@Test
+	void linhaCorrompidaLancaErro() {
+		assertThatThrownBy(() -> AfdParser.marcacao("0000001263" + "2025-03-1XT08:01:00-0300" + "052998224725"))
+				.isInstanceOf(NumberFormatException.class);
+	}
+
+	@Test
+	void identificacaoDoRepNoCabecalho671() {
+		String cabecalho = "000000000" + "1" + "1" + "12345678000199" + " ".repeat(14)
+				+ String.format("%-150s", "EMPRESA LTDA") + "00004004330000000"
+				+ "2025-03-01" + "2025-03-31" + "2025-04-01T10:00:00-0300";
+
+		assertThat(AfdParser.identificacaoRep(cabecalho)).isEqualTo("00004004330000000");
+	}
+
+	@Test
+	void documentoIgnoraFormatacao() {
+		assertThat(AfdParser.documento("529.982.247-25")).isEqualTo(52998224725L);
+	}
+
+	@Test
+	void diaGuardaAteQuatroMarcacoesOrdenadas() {
+		int[] slots = { -1, -1, -1, -1 };
+
+		assertThat(ImportacaoAfdService.adicionar(slots, 43200)).isTrue();
+		assertThat(ImportacaoAfdService.adicionar(slots, 28800)).isTrue();
+		assertThat(ImportacaoAfdService.adicionar(slots, 28800)).isTrue(); // mesma marcação repetida
+		assertThat(ImportacaoAfdService.adicionar(slots, 61200)).isTrue();
+		assertThat(ImportacaoAfdService.adicionar(slots, 46800)).isTrue();
+		assertThat(ImportacaoAfdService.adicionar(slots, 62000)).isFalse();
+
+		assertThat(slots).containsExactly(28800, 43200, 46800, 61200);
+	}
+
+	@Test
+	void diaComBatidasExistentesEhRedistribuidoEmOrdem() {
+		int[] existentes = { seg(8, 0), -1, -1, -1 };
+		int[] importadas = { seg(12, 0), seg(13, 0), seg(17, 0), -1 };
+
+		assertThat(ImportacaoAfdService.mesclar(importadas, existentes)).isZero();
+
+		// entrada mantida; 12:00 vai para o início do almoço e a saída é preenchida
+		assertThat(importadas).containsExactly(seg(8, 0), seg(12, 0), seg(13, 0), seg(17, 0));
+	}
+
+	@Test
+	void mesclaIgnoraRepetidasEContaExcedentes() {
+		int[] existentes = { seg(8, 0), seg(12, 0), -1, -1 };
+		int[] importadas = { seg(7, 55), seg(12, 0), seg(13, 0), seg(17, 0) };
+
+		assertThat(ImportacaoAfdService.mesclar(importadas, existentes)).isEqualTo(1);
+
+		// as batidas já gravadas têm precedência; a quinta marcação do dia fica de fora
+		assertThat(importadas).containsExactly(seg(8, 0), seg(12, 0), seg(13, 0), seg(17, 0));
+	}
+
+	@Test
+	void batidaExistenteNaoMudaDeSlot() {
+		int[] existentes = { seg(8, 0), -1, -1, seg(17, 0) };
+		int[] importadas = { seg(12, 0), seg(18, 0), -1, -1 };
+
+		assertThat(ImportacaoAfdService.mesclar(importadas, existentes)).isEqualTo(1);
+
+		// 18:00 ficaria antes da saída já gravada: não entra, e a saída continua no último slot
+		assertThat(importadas).containsExactly(seg(8, 0), seg(12, 0), -1, seg(17, 0));
+	}
+
+	private static int seg(int hora, int minuto) {
+		return LocalTime.of(hora, minuto).toSecondOfDay();
+	}
+}
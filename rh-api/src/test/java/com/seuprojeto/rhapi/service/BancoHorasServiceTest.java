@@ -0,0 +1,72 @@
+package com.seuprojeto.rhapi.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Regras de cálculo que o relatório agregado no MySQL (RegistroPontoRepository.SQL_MINUTOS_DIA)
+ * reproduz; os dois caminhos precisam concordar com os casos abaixo.
+ */
+class BancoHorasServiceTest {
+
+	@Test
+	void previstoPorContagemDeDiasIgualAoCalculoDiaADia() {
+		int[] jornada = { 480, 480, 480, 480, 240, 120, 0 };
+		for (String comp : new String[] { "2024-02", "2025-02", "2025-03", "2025-06", "2025-12" }) {
+			YearMonth competencia = YearMonth.parse(comp);
+			int diaADia = 0;
+			for (LocalDate d = competencia.atDay(1); !d.isAfter(competencia.atEndOfMonth()); d = d.plusDays(1)) {
+				diaADia += jornada[d.getDayOfWeek().getValue() - 1];
+			}
+
+			int[] dias = BancoHorasService.diasPorDiaSemana(competencia);
+			assertThat(dias[0] + dias[1] + dias[2] + dias[3] + dias[4] + dias[5] + dias[6])
+					.isEqualTo(competencia.lengthOfMonth());
+			assertThat(BancoHorasService.previstoNoPeriodo(jornada, dias)).as(comp).isEqualTo(diaADia);
+		}
+	}
+
+	@Test
+	void jornadaPadraoEmMarcoDe2025() {
+		// março/2025: 21 dias úteis
+		int[] dias = BancoHorasService.diasPorDiaSemana(YearMonth.of(2025, 3));
+		assertThat(BancoHorasService.previstoNoPeriodo(BancoHorasService.JORNADA_PADRAO, dias)).isEqualTo(21 * 480);
+	}
+
+	@Test
+	void minutosTrabalhadosDescontaAlmocoSoComInicioEFim() {
+		assertThat(minutos("08:00", "12:00", "13:00", "17:00")).isEqualTo(480);
+		assertThat(minutos("08:00", "12:00", null, "17:00")).isEqualTo(540);
+		assertThat(minutos("08:00", null, null, "12:30")).isEqualTo(270);
+	}
+
+	@Test
+	void diaAbertoNaoConta() {
+		assertThat(minutos("08:00", "12:00", "13:00", null)).isZero();
+		assertThat(minutos(null, null, null, "17:00")).isZero();
+	}
+
+	@Test
+	void minutosSaoTruncadosComoNoTimestampdiff() {
+		// 08:00:59 -> 17:00:00 = 539 min e 1 s; almoço 12:00:00 -> 12:59:59 = 59 min e 59 s
+		assertThat(minutos("08:00:59", "12:00:00", "12:59:59", "17:00:00")).isEqualTo(539 - 59);
+	}
+
+	@Test
+	void nuncaNegativo() {
+		assertThat(minutos("08:00", "08:10", "12:00", "09:00")).isZero();
+	}
+
+	private static int minutos(String entrada, String inicioAlmoco, String fimAlmoco, String saida) {
+		return BancoHorasService.minutosTrabalhados(hora(entrada), hora(inicioAlmoco), hora(fimAlmoco), hora(saida));
+	}
+
+	private static LocalTime hora(String s) {
+		return s == null ? null : LocalTime.parse(s);
+	}
+}
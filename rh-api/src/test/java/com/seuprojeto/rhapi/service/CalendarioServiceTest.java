@@ -0,0 +1,59 @@
+package com.seuprojeto.rhapi.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CalendarioServiceTest {
+
+	@Test
+	void marcarLimitaAoAnoDaMascara() {
+		long[] m = new long[6];
+		CalendarioService.marcar(m, 2024, LocalDate.of(2023, 12, 20), LocalDate.of(2024, 1, 2));
+		CalendarioService.marcar(m, 2024, LocalDate.of(2024, 12, 30), LocalDate.of(2025, 1, 10));
+
+		assertThat(CalendarioService.folga(m, 1)).isTrue();
+		assertThat(CalendarioService.folga(m, 2)).isTrue();
+		assertThat(CalendarioService.folga(m, 3)).isFalse();
+		assertThat(CalendarioService.folga(m, 365)).isTrue();
+		assertThat(CalendarioService.folga(m, 366)).isTrue(); // 2024 é bissexto
+		assertThat(Long.bitCount(m[0]) + Long.bitCount(m[5]) + Long.bitCount(m[1])).isEqualTo(4);
+	}
+
+	@Test
+	void previstoNoMesDescontaSoAJornadaDosDiasDeFolga() {
+		// abril/2025: 22 dias úteis; 18 (sexta) e 21 (segunda) feriados, 19 (sábado) sem jornada
+		YearMonth abril = YearMonth.of(2025, 4);
+		long[] m = new long[6];
+		for (int dia : new int[] { 18, 19, 21 }) {
+			CalendarioService.marcar(m, 2025, abril.atDay(dia), abril.atDay(dia));
+		}
+		int[] dias = BancoHorasService.diasPorDiaSemana(abril);
+
+		assertThat(CalendarioService.previstoNoMes(BancoHorasService.JORNADA_PADRAO, dias, new long[6], abril))
+				.isEqualTo(22 * 480);
+		assertThat(CalendarioService.previstoNoMes(BancoHorasService.JORNADA_PADRAO, dias, m, abril))
+				.isEqualTo(20 * 480);
+	}
+
+	@Test
+	void livroZeraOPrevistoDasFolgasNaViradaDoAno() {
+		long[] m2024 = new long[6];
+		CalendarioService.marcar(m2024, 2024, LocalDate.of(2024, 12, 25), LocalDate.of(2024, 12, 25));
+		long[] m2025 = new long[6];
+		CalendarioService.marcar(m2025, 2025, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 1));
+
+		// 23/12/2024 (segunda) .. 03/01/2025 (sexta): 10 dias úteis, 2 feriados
+		LivroHoras livro = new LivroHoras(LocalDate.of(2024, 12, 23), LocalDate.of(2025, 1, 3))
+				.aplicarJornada(BancoHorasService.JORNADA_PADRAO)
+				.aplicarFolgas(m2024, 2024)
+				.aplicarFolgas(m2025, 2025);
+
+		assertThat(livro.previsto(2)).isZero();
+		assertThat(livro.previsto(9)).isZero();
+		assertThat(livro.saldoTotal()).isEqualTo(-8 * 480);
+	}
+}
@@ -0,0 +1,39 @@
+package com.seuprojeto.rhapi.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChaveColabDiaTest {
+
+	@Test
+	void idaEVoltaPreservaColaboradorEDia() {
+		LocalDate dia = LocalDate.of(2025, 3, 14);
+		long chave = ChaveColabDia.de(123_456L, dia);
+
+		assertThat(ChaveColabDia.colaboradorId(chave)).isEqualTo(123_456L);
+		assertThat(ChaveColabDia.epochDay(chave)).isEqualTo(dia.toEpochDay());
+	}
+
+	@Test
+	void diaForaDaFaixaNaoViraChave() {
+		LocalDate antesDe1970 = LocalDate.of(1969, 12, 31);
+
+		assertThat(ChaveColabDia.cabe(1L, antesDe1970)).isFalse();
+		assertThat(ChaveColabDia.cabe(1L, 1L << 22)).isFalse();
+		// sem a validação, -1 sobrescreveria os bits do colaborador e colidiria com outra chave
+		assertThatThrownBy(() -> ChaveColabDia.de(1L, antesDe1970)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> ChaveColabDia.de(-1L, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void colaboradoresVizinhosNoMesmoDiaNaoColidem() {
+		long ultimoDia = (1L << 22) - 1;
+
+		assertThat(ChaveColabDia.de(1L, ultimoDia)).isNotEqualTo(ChaveColabDia.de(2L, 0));
+		assertThat(ChaveColabDia.de(1L, ultimoDia)).isLessThan(ChaveColabDia.de(2L, 0));
+	}
+}
@@ -0,0 +1,76 @@
+package com.seuprojeto.rhapi.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportacaoAfdServiceTest {
+
+	private static final long CPF_ANA = 52998224725L;
+	private static final long CPF_BRUNO = 11144477735L;
+
+	@Test
+	void nsrSegueAOrdemDasMarcacoesEntreColaboradores() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ExportacaoAfdService.Linha l = new ExportacaoAfdService.Linha(out);
+		ExportacaoAfdService.MarcacoesDia dia = new ExportacaoAfdService.MarcacoesDia();
+
+		// como chegam do cursor: por dia e, dentro do dia, por colaborador
+		long nsr = 0;
+		dia.ymd = 20250310;
+		marcar(dia, CPF_ANA, "08:00", "12:00", "13:00", "17:00");
+		marcar(dia, CPF_BRUNO, "07:30", "11:30", "12:30", "16:30");
+		nsr = dia.escrever(l, nsr);
+		dia.ymd = 20250311;
+		marcar(dia, CPF_ANA, "09:00", "18:00");
+		marcar(dia, CPF_BRUNO, "07:00");
+		nsr = dia.escrever(l, nsr);
+		l.descarregar();
+
+		List<AfdParser.Marcacao> lidas = new ArrayList<>();
+		for (String linha : out.toString(StandardCharsets.ISO_8859_1).split("\r\n")) {
+			lidas.add(AfdParser.marcacao(linha));
+		}
+
+		assertThat(nsr).isEqualTo(11);
+		assertThat(lidas).extracting(AfdParser.Marcacao::nsr).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L);
+		assertThat(lidas).extracting(m -> LocalDateTime.of(m.data(), LocalTime.ofSecondOfDay(m.segundoDoDia())))
+				.isSorted();
+		assertThat(lidas.get(0).cpf()).isEqualTo(CPF_BRUNO);
+		assertThat(lidas.get(1).cpf()).isEqualTo(CPF_ANA);
+	}
+
+	@Test
+	void importarAPropriaExportacaoNaoVoltaNoTempo() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ExportacaoAfdService.Linha l = new ExportacaoAfdService.Linha(out);
+		ExportacaoAfdService.MarcacoesDia dia = new ExportacaoAfdService.MarcacoesDia();
+
+		long nsr = 0;
+		for (int d = 10; d <= 14; d++) {
+			dia.ymd = 20250300 + d;
+			marcar(dia, CPF_ANA, "08:00", "17:00");
+			marcar(dia, CPF_BRUNO, "06:00", "14:00");
+			nsr = dia.escrever(l, nsr);
+		}
+		l.descarregar();
+
+		// o importador descarrega os dias anteriores quando a data avança; a data não pode recuar
+		List<Long> dias = new ArrayList<>();
+		for (String linha : out.toString(StandardCharsets.ISO_8859_1).split("\r\n")) {
+			dias.add(AfdParser.marcacao(linha).data().toEpochDay());
+		}
+		assertThat(dias).hasSize(20).isSorted();
+	}
+
+	private static void marcar(ExportacaoAfdService.MarcacoesDia dia, long cpf, String... horas) {
+		for (String h : horas) dia.adicionar(cpf, LocalTime.parse(h).toSecondOfDay());
+	}
+}
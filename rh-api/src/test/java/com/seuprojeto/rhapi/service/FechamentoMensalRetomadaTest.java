@@ -0,0 +1,130 @@
+package com.seuprojeto.rhapi.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Retomada do fechamento mensal: só os chunks PENDENTE são processados de novo, e o acumulado por janela
+ * é recalculado a partir da competência refeita, inclusive nas competências seguintes já fechadas.
+ * Roda contra um MySQL real (Testcontainers, com as migrações Flyway); sem Docker, é pulado.
+ */
+@SpringBootTest(properties = {
+		"spring.jpa.show-sql=false",
+		"app.jornada-cache.aquecer-na-subida=false",
+		"app.fechamento.tamanho-chunk=1"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class FechamentoMensalRetomadaTest {
+
+	@Container
+	@ServiceConnection
+	static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+	private static final YearMonth FEVEREIRO = YearMonth.of(2025, 2);
+	private static final YearMonth MARCO = YearMonth.of(2025, 3);
+
+	@Autowired FechamentoMensalService fechamento;
+	@Autowired JdbcTemplate jdbc;
+
+	@Test
+	void chunkPendenteEhRefeitoERecalculaOAcumuladoDasCompetenciasSeguintes() throws Exception {
+		jdbc.update("INSERT INTO departamentos (nome) VALUES (?)", "Fechamento");
+		long dep = jdbc.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
+		long refeito = colaborador("Refeito", "81000000001", dep);
+		long intacto = colaborador("Intacto", "81000000002", dep);
+		for (long colab : new long[] { refeito, intacto }) {
+			batida(colab, LocalDate.of(2025, 2, 3), "08:00", "17:00");
+			batida(colab, LocalDate.of(2025, 3, 3), "08:00", "17:00");
+		}
+
+		fechar(FEVEREIRO);
+		fechar(MARCO);
+
+		int fev = saldo(refeito, FEVEREIRO);
+		int mar = saldo(refeito, MARCO);
+		assertThat(acumulado(refeito, FEVEREIRO)).isEqualTo(fev);
+		assertThat(acumulado(refeito, MARCO)).isEqualTo(fev + mar);
+		int fevIntacto = saldo(intacto, FEVEREIRO);
+		int marIntactoAcumulado = acumulado(intacto, MARCO);
+
+		// batidas lançadas depois do fechamento; só o chunk do primeiro colaborador volta a PENDENTE
+		batida(refeito, LocalDate.of(2025, 2, 4), "08:00", "12:00");
+		batida(intacto, LocalDate.of(2025, 2, 4), "08:00", "12:00");
+		int pendentes = jdbc.update("""
+				UPDATE fechamento_chunks c JOIN fechamentos_mensais f ON f.id = c.fechamento_id
+				   SET c.status = 'PENDENTE'
+				 WHERE f.competencia = ? AND ? BETWEEN c.primeiro_colaborador_id AND c.ultimo_colaborador_id
+				""", FEVEREIRO.toString(), refeito);
+		assertThat(pendentes).isEqualTo(1);
+
+		fechar(FEVEREIRO);
+
+		assertThat(saldo(refeito, FEVEREIRO)).isEqualTo(fev + 240);
+		assertThat(acumulado(refeito, FEVEREIRO)).isEqualTo(fev + 240);
+		// março não foi refeito, mas o acumulado dele soma o fevereiro novo
+		assertThat(saldo(refeito, MARCO)).isEqualTo(mar);
+		assertThat(acumulado(refeito, MARCO)).isEqualTo(fev + 240 + mar);
+
+		// o chunk concluído não roda de novo: a batida nova só entra num próximo refazer
+		assertThat(saldo(intacto, FEVEREIRO)).isEqualTo(fevIntacto);
+		assertThat(acumulado(intacto, MARCO)).isEqualTo(marIntactoAcumulado);
+	}
+
+	/** Inicia (ou retoma) o fechamento e espera até todos os chunks concluírem. */
+	private void fechar(YearMonth competencia) throws InterruptedException {
+		long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+		while (System.nanoTime() < limite) {
+			fechamento.iniciar(competencia, false);
+			FechamentoMensalService.Progresso p;
+			do {
+				Thread.sleep(50);
+				p = fechamento.progresso(competencia).orElseThrow();
+			} while ("EM_ANDAMENTO".equals(p.status()) && System.nanoTime() < limite);
+			assertThat(p.chunksComFalha()).isZero();
+			// a execução anterior desta competência pode não ter liberado o nó ainda: tenta de novo
+			if ("CONCLUIDO".equals(p.status()) && p.chunks().stream().allMatch(c -> "CONCLUIDO".equals(c.status()))) {
+				return;
+			}
+		}
+		fail("Fechamento de %s não concluiu", competencia);
+	}
+
+	private long colaborador(String nome, String cpf, long dep) {
+		jdbc.update("""
+				INSERT INTO colaboradores (nome, cpf, email, data_admissao, departamento_id)
+				VALUES (?, ?, ?, ?, ?)
+				""", nome, cpf, cpf + "@fechamento.local", LocalDate.of(2020, 1, 2), dep);
+		return jdbc.queryForObject("SELECT LAST_INSERT_ID()", Long.class);
+	}
+
+	private void batida(long colab, LocalDate data, String entrada, String saida) {
+		jdbc.update("""
+				INSERT INTO registros_ponto (colaborador_id, data, hora_entrada, hora_saida, origem)
+				VALUES (?, ?, ?, ?, 'WEB')
+				""", colab, data, entrada, saida);
+	}
+
+	private int saldo(long colab, YearMonth competencia) {
+		return jdbc.queryForObject("SELECT saldo_minutos FROM bancos_horas WHERE colaborador_id = ? AND competencia = ?",
+				Integer.class, colab, competencia.toString());
+	}
+
+	private int acumulado(long colab, YearMonth competencia) {
+		return jdbc.queryForObject(
+				"SELECT saldo_acumulado_minutos FROM bancos_horas WHERE colaborador_id = ? AND competencia = ?",
+				Integer.class, colab, competencia.toString());
+	}
+}
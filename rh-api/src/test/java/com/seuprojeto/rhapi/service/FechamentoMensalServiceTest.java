@@ -0,0 +1,30 @@
+package com.seuprojeto.rhapi.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FechamentoMensalServiceTest {
+
+	@Test
+	void faixasCobremTodosOsIdsComUltimoChunkParcial() {
+		List<FechamentoMensalService.Chunk> chunks = FechamentoMensalService.dividir(List.of(1L, 2L, 5L, 9L, 10L), 2, 0);
+
+		assertThat(chunks).containsExactly(
+				new FechamentoMensalService.Chunk(0, 1, 2, 2),
+				new FechamentoMensalService.Chunk(1, 5, 9, 2),
+				new FechamentoMensalService.Chunk(2, 10, 10, 1));
+	}
+
+	@Test
+	void colaboradoresNovosNaRetomadaViramChunksDepoisDoUltimo() {
+		// faixas originais terminavam no id 10 (chunks 0..2); admitidos depois: 11, 12 e 40
+		List<FechamentoMensalService.Chunk> novos = FechamentoMensalService.dividir(List.of(11L, 12L, 40L), 2, 3);
+
+		assertThat(novos).containsExactly(
+				new FechamentoMensalService.Chunk(3, 11, 12, 2),
+				new FechamentoMensalService.Chunk(4, 40, 40, 1));
+	}
+}
@@ -0,0 +1,81 @@
+package com.seuprojeto.rhapi.service;
+
+import com.seuprojeto.rhapi.repository.RegistroPontoRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class FilaBatidasServiceTest {
+
+	@Test
+	void conexaoDeadlockETimeoutRepetemOLote() {
+		assertThat(FilaBatidasService.transitoria(new CannotGetJdbcConnectionException("sem conexão"))).isTrue();
+		assertThat(FilaBatidasService.transitoria(new CannotAcquireLockException("deadlock"))).isTrue();
+		assertThat(FilaBatidasService.transitoria(new QueryTimeoutException("timeout"))).isTrue();
+		assertThat(FilaBatidasService.transitoria(
+				new CannotCreateTransactionException("tx", new SQLTransientConnectionException("pool vazio")))).isTrue();
+	}
+
+	@Test
+	void violacaoDeFkOuTruncamentoIsolaABatida() {
+		assertThat(FilaBatidasService.transitoria(new DataIntegrityViolationException("fk colaborador",
+				new SQLException("Cannot add or update a child row", "23000", 1452)))).isFalse();
+		assertThat(FilaBatidasService.transitoria(new DataIntegrityViolationException("Data truncation"))).isFalse();
+		assertThat(FilaBatidasService.transitoria(new IllegalStateException())).isFalse();
+	}
+
+	@Test
+	void batidaAntesDaSubidaEhRecusadaSemCarregarODiaDoBanco(@TempDir Path dir) throws Exception {
+		LocalDate dia = LocalDate.of(2025, 3, 10);
+		Path journal = dir.resolve("batidas.journal");
+		// batida aceita antes de o processo cair: ainda está só no journal
+		Files.writeString(journal, "7;" + dia + ";0;08:00;;;0\n", StandardCharsets.UTF_8);
+
+		TransactionTemplate tx = mock(TransactionTemplate.class);
+		RegistroPontoRepository pontoRepo = mock(RegistroPontoRepository.class);
+		when(pontoRepo.findMarcacoesNoPeriodo(eq(7L), eq(dia), eq(dia))).thenReturn(List.of());
+		FilaBatidasService fila = new FilaBatidasService(true, journal.toString(),
+				dir.resolve("batidas.rejeitadas").toString(), 500, 50,
+				mock(JdbcTemplate.class), tx, pontoRepo, null);
+
+		FilaBatidasService.ResultadoBatida antes = fila.registrar(7L, dia, LocalTime.of(12, 0), null, null);
+		assertThat(antes.aceita()).isFalse();
+		assertThat(antes.status()).isEqualTo(503);
+		verifyNoInteractions(pontoRepo, tx);
+
+		fila.iniciar();
+		try {
+			assertThat(fila.registrar(7L, dia, LocalTime.of(12, 0), null, null).aceita()).isTrue();
+			// o journal foi reaplicado antes de o dia ser lido do banco
+			InOrder ordem = inOrder(tx, pontoRepo);
+			ordem.verify(tx).executeWithoutResult(any());
+			ordem.verify(pontoRepo).findMarcacoesNoPeriodo(7L, dia, dia);
+		} finally {
+			fila.parar();
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.seuprojeto.rhapi.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotenciaCacheTest {
+
+	@Test
+	void toquesSimultaneosComMesmaChaveExecutamUmaVez() throws Exception {
+		IdempotenciaCache cache = new IdempotenciaCache(1000, 10);
+		AtomicInteger execucoes = new AtomicInteger();
+		int threads = 32;
+		CountDownLatch largada = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<ResponseEntity<?>>> respostas = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				respostas.add(pool.submit(() -> {
+					largada.await();
+					return cache.executar("ana@empresa.com|chave-1", () -> {
+						int n = execucoes.incrementAndGet();
+						sleep(50);
+						return ResponseEntity.ok(Map.of("batidas", n));
+					});
+				}));
+			}
+			largada.countDown();
+
+			ResponseEntity<?> primeira = respostas.get(0).get();
+			for (Future<ResponseEntity<?>> f : respostas) {
+				assertThat(f.get()).isSameAs(primeira);
+			}
+			assertThat(execucoes.get()).isEqualTo(1);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void chavesDiferentesExecutamSeparadamente() {
+		IdempotenciaCache cache = new IdempotenciaCache(1000, 10);
+		AtomicInteger execucoes = new AtomicInteger();
+
+		cache.executar("ana@empresa.com|a", () -> ResponseEntity.ok(execucoes.incrementAndGet()));
+		cache.executar("ana@empresa.com|b", () -> ResponseEntity.ok(execucoes.incrementAndGet()));
+		cache.executar("ana@empresa.com|a", () -> ResponseEntity.ok(execucoes.incrementAndGet()));
+
+		assertThat(execucoes.get()).isEqualTo(2);
+	}
+
+	@Test
+	void erroDeServidorNaoFicaGuardado() {
+		IdempotenciaCache cache = new IdempotenciaCache(1000, 10);
+		AtomicInteger execucoes = new AtomicInteger();
+
+		cache.executar("k", () -> {
+			execucoes.incrementAndGet();
+			return ResponseEntity.internalServerError().build();
+		});
+		ResponseEntity<?> segunda = cache.executar("k", () -> {
+			execucoes.incrementAndGet();
+			return ResponseEntity.ok().build();
+		});
+
+		assertThat(execucoes.get()).isEqualTo(2);
+		assertThat(segunda.getStatusCode().is2xxSuccessful()).isTrue();
+	}
+
+	private static void sleep(long ms) {
+		try {
+			Thread.sleep(ms);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
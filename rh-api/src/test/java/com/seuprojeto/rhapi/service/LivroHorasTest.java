@@ -0,0 +1,71 @@
+package com.seuprojeto.rhapi.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LivroHorasTest {
+
+	@Test
+	void diaDaSemanaPeloEpochDay() {
+		for (LocalDate d = LocalDate.of(1969, 12, 1); d.isBefore(LocalDate.of(2031, 1, 1)); d = d.plusDays(1)) {
+			assertThat(LivroHoras.diaDaSemana(d.toEpochDay())).isEqualTo(d.getDayOfWeek().getValue() - 1);
+		}
+	}
+
+	@Test
+	void previstoTrabalhadoESaldoPorDia() {
+		// 2025-03-07 é sexta
+		LivroHoras livro = new LivroHoras(LocalDate.of(2025, 3, 7), LocalDate.of(2025, 3, 10))
+				.aplicarJornada(new int[] { 480, 480, 480, 480, 240, 0, 0 })
+				.registrar(LocalDate.of(2025, 3, 7).toEpochDay(), 8 * 3600, -1, -1, 13 * 3600)
+				.registrar(LocalDate.of(2025, 3, 10).toEpochDay(), 8 * 3600, 12 * 3600, 13 * 3600, 17 * 3600 + 30 * 60);
+
+		assertThat(livro.dias()).isEqualTo(4);
+		assertThat(new int[] { livro.previsto(0), livro.previsto(1), livro.previsto(2), livro.previsto(3) })
+				.containsExactly(240, 0, 0, 480);
+		assertThat(new int[] { livro.saldo(0), livro.saldo(1), livro.saldo(2), livro.saldo(3) })
+				.containsExactly(60, 0, 0, 30);
+		assertThat(livro.saldoTotal()).isEqualTo(90);
+	}
+
+	@Test
+	void reiniciarLimpaOPeriodoAnterior() {
+		LivroHoras livro = new LivroHoras(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31))
+				.aplicarJornada(BancoHorasService.JORNADA_PADRAO)
+				.registrar(LocalDate.of(2025, 1, 2).toEpochDay(), 0, -1, -1, 3600);
+
+		livro.reiniciar(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 2));
+		assertThat(livro.dias()).isEqualTo(2);
+		assertThat(livro.saldoTotal()).isZero();
+	}
+
+	@Test
+	void minutosIguaisAoCalculoComDuration() {
+		Random r = new Random(42);
+		for (int n = 0; n < 10_000; n++) {
+			LocalTime[] t = new LocalTime[4];
+			for (int i = 0; i < 4; i++) {
+				t[i] = r.nextInt(8) == 0 ? null : LocalTime.ofSecondOfDay(r.nextInt(86_400));
+			}
+			assertThat(LivroHoras.minutos(LivroHoras.segundos(t[0]), LivroHoras.segundos(t[1]),
+					LivroHoras.segundos(t[2]), LivroHoras.segundos(t[3])))
+					.isEqualTo(comDuration(t[0], t[1], t[2], t[3]));
+		}
+	}
+
+	/** Cálculo anterior, com Duration, como referência. */
+	private static int comDuration(LocalTime entrada, LocalTime inicioAlmoco, LocalTime fimAlmoco, LocalTime saida) {
+		if (entrada == null || saida == null) return 0;
+		int total = (int) Duration.between(entrada, saida).toMinutes();
+		if (inicioAlmoco != null && fimAlmoco != null) {
+			total -= (int) Duration.between(inicioAlmoco, fimAlmoco).toMinutes();
+		}
+		return Math.max(total, 0);
+	}
+}
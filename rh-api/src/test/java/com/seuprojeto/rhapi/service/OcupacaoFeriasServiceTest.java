@@ -0,0 +1,42 @@
+package com.seuprojeto.rhapi.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OcupacaoFeriasServiceTest {
+
+	private static long dia(int d) {
+		return LocalDate.of(2025, 7, d).toEpochDay();
+	}
+
+	@Test
+	void contaAusentesEPendentesPorDia() {
+		var indice = new OcupacaoFeriasService.Indice();
+		indice.aplicar(1, dia(1), dia(10), 0);  // aprovada
+		indice.aplicar(2, dia(5), dia(6), 0);   // aprovada
+		indice.aplicar(3, dia(6), dia(20), 1);  // pendente
+
+		int[][] c = indice.contar(dia(4), dia(11));
+
+		assertThat(c[0]).containsExactly(1, 2, 2, 1, 1, 1, 1, 0);
+		assertThat(c[1]).containsExactly(0, 0, 1, 1, 1, 1, 1, 1);
+	}
+
+	@Test
+	void trocaDeStatusEhIdempotentePorSolicitacao() {
+		var indice = new OcupacaoFeriasService.Indice();
+		indice.aplicar(1, dia(1), dia(3), 1);
+		indice.aplicar(1, dia(1), dia(3), 0);  // aprovada
+		indice.aplicar(1, dia(1), dia(3), 0);  // repetida (já veio na carga)
+
+		int[][] c = indice.contar(dia(1), dia(4));
+		assertThat(c[0]).containsExactly(1, 1, 1, 0);
+		assertThat(c[1]).containsExactly(0, 0, 0, 0);
+
+		indice.aplicar(1, dia(1), dia(3), -1); // reprovada
+		assertThat(indice.contar(dia(1), dia(4))[0]).containsOnly(0);
+	}
+}
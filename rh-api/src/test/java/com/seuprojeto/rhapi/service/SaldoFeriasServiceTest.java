@@ -0,0 +1,137 @@
+package com.seuprojeto.rhapi.service;
+
+import com.seuprojeto.rhapi.domain.Colaborador;
+import com.seuprojeto.rhapi.domain.SolicitacaoFerias;
+import com.seuprojeto.rhapi.domain.enums.StatusFerias;
+import com.seuprojeto.rhapi.dto.ResultadoStatusFeriasDTO;
+import com.seuprojeto.rhapi.repository.SaldoFeriasRepository;
+import com.seuprojeto.rhapi.repository.SolicitacaoFeriasRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SaldoFeriasServiceTest {
+
+	private final SolicitacaoFeriasRepository feriasRepo = mock(SolicitacaoFeriasRepository.class);
+	private final JdbcTemplate jdbc = mock(JdbcTemplate.class);
+	private final SaldoFeriasService service =
+			new SaldoFeriasService(feriasRepo, mock(SaldoFeriasRepository.class), jdbc);
+
+	@Test
+	void adquiridosContamMesesCompletosComTeto() {
+		LocalDate adm = LocalDate.of(2024, 1, 15);
+
+		assertThat(SaldoFeriasService.diasAdquiridos(adm, LocalDate.of(2024, 2, 14))).isZero();
+		assertThat(SaldoFeriasService.diasAdquiridos(adm, LocalDate.of(2024, 2, 15))).isEqualTo(2);
+		assertThat(SaldoFeriasService.diasAdquiridos(adm, LocalDate.of(2024, 3, 15))).isEqualTo(5);
+		assertThat(SaldoFeriasService.diasAdquiridos(adm, LocalDate.of(2025, 6, 1))).isEqualTo(30);
+		assertThat(SaldoFeriasService.diasAdquiridos(adm, LocalDate.of(2023, 12, 1))).isZero();
+		assertThat(SaldoFeriasService.diasAdquiridos(null, LocalDate.of(2024, 3, 15))).isZero();
+	}
+
+	@Test
+	void disponivelDescontaPendentesEAprovadosEntreZeroETrinta() {
+		assertThat(SaldoFeriasService.disponivel(30, 5, 10)).isEqualTo(15);
+		assertThat(SaldoFeriasService.disponivel(10, 5, 10)).isZero();
+		assertThat(SaldoFeriasService.disponivel(30, 0, 0)).isEqualTo(30);
+	}
+
+	@Test
+	void aprovacaoEmLoteConfereSobreposicaoComAsAprovadasAntesNoProprioLote() {
+		Colaborador ana = colaborador(1L);
+		SolicitacaoFerias jaAprovada = ferias(10L, ana, "2025-03-01", "2025-03-10", 10, StatusFerias.APROVADA);
+		SolicitacaoFerias sobrepoeAprovada = ferias(11L, ana, "2025-03-05", "2025-03-14", 10, StatusFerias.CRIADA);
+		SolicitacaoFerias abril = ferias(12L, ana, "2025-04-01", "2025-04-10", 10, StatusFerias.CRIADA);
+		SolicitacaoFerias sobrepoeAbril = ferias(13L, ana, "2025-04-08", "2025-04-12", 5, StatusFerias.CRIADA);
+		when(feriasRepo.findParaAtualizarEmLote(anyCollection()))
+				.thenReturn(List.of(jaAprovada, sobrepoeAprovada, abril, sobrepoeAbril));
+		when(feriasRepo.findByColaboradoresAndStatus(anyCollection(), eq(StatusFerias.APROVADA)))
+				.thenReturn(List.of(jaAprovada));
+
+		SaldoFeriasService.Lote lote = service.alterarStatusEmLote(
+				List.of(11L, 12L, 13L, 10L, 99L, 12L), StatusFerias.APROVADA);
+
+		// ids repetidos contam uma vez; 13 conflita com 12, aprovada antes no mesmo lote
+		assertThat(lote.resultados())
+				.extracting(ResultadoStatusFeriasDTO::id, ResultadoStatusFeriasDTO::resultado, ResultadoStatusFeriasDTO::status)
+				.containsExactly(
+						tuple(11L, "CONFLITO", StatusFerias.CRIADA),
+						tuple(12L, "ALTERADA", StatusFerias.APROVADA),
+						tuple(13L, "CONFLITO", StatusFerias.CRIADA),
+						tuple(10L, "SEM_ALTERACAO", StatusFerias.APROVADA),
+						tuple(99L, "NAO_ENCONTRADA", null));
+		assertThat(lote.alteradas()).singleElement().satisfies(a -> {
+			assertThat(a.solicitacao().getId()).isEqualTo(12L);
+			assertThat(a.anterior()).isEqualTo(StatusFerias.CRIADA);
+		});
+		verify(feriasRepo).atualizarStatus(eq(List.of(12L)), eq(StatusFerias.APROVADA), any(Instant.class));
+
+		// CRIADA -> APROVADA: os dias saem de pendentes e entram em aprovados
+		assertThat(deltas()).containsExactly(new Object[] { 1L, -10, 10 });
+	}
+
+	@Test
+	void reprovacaoEmLoteDevolveDiasPendentesEAprovadosPorColaborador() {
+		Colaborador ana = colaborador(1L);
+		Colaborador bia = colaborador(2L);
+		when(feriasRepo.findParaAtualizarEmLote(anyCollection())).thenReturn(List.of(
+				ferias(20L, ana, "2025-05-05", "2025-05-09", 5, StatusFerias.APROVADA),
+				ferias(21L, ana, "2025-06-02", "2025-06-04", 3, StatusFerias.CRIADA),
+				ferias(22L, bia, "2025-05-12", "2025-05-18", 7, StatusFerias.APROVADA),
+				ferias(23L, bia, "2025-07-01", "2025-07-02", 2, StatusFerias.REPROVADA)));
+
+		SaldoFeriasService.Lote lote = service.alterarStatusEmLote(List.of(20L, 21L, 22L, 23L), StatusFerias.REPROVADA);
+
+		assertThat(lote.resultados()).extracting(ResultadoStatusFeriasDTO::resultado)
+				.containsExactly("ALTERADA", "ALTERADA", "ALTERADA", "SEM_ALTERACAO");
+		assertThat(lote.alteradas()).extracting(a -> a.solicitacao().getId(), SaldoFeriasService.Alteracao::anterior)
+				.containsExactly(tuple(20L, StatusFerias.APROVADA), tuple(21L, StatusFerias.CRIADA),
+						tuple(22L, StatusFerias.APROVADA));
+		// reprovar não confere sobreposição
+		verify(feriasRepo, never()).findByColaboradoresAndStatus(anyCollection(), any());
+
+		// um delta por colaborador: APROVADA -> REPROVADA tira de aprovados, CRIADA -> REPROVADA de pendentes
+		assertThat(deltas()).containsExactlyInAnyOrder(
+				new Object[] { 1L, -3, -5 },
+				new Object[] { 2L, 0, -7 });
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Object[]> deltas() {
+		ArgumentCaptor<List<Object[]>> args = ArgumentCaptor.forClass(List.class);
+		verify(jdbc).batchUpdate(eq(SaldoFeriasService.SQL_SOMAR), args.capture());
+		return args.getValue();
+	}
+
+	private static Colaborador colaborador(long id) {
+		Colaborador c = new Colaborador();
+		ReflectionTestUtils.setField(c, "id", id);
+		return c;
+	}
+
+	private static SolicitacaoFerias ferias(long id, Colaborador c, String inicio, String fim, int dias, StatusFerias status) {
+		SolicitacaoFerias s = new SolicitacaoFerias();
+		ReflectionTestUtils.setField(s, "id", id);
+		s.setColaborador(c);
+		s.setDataInicio(LocalDate.parse(inicio));
+		s.setDataFim(LocalDate.parse(fim));
+		s.setDias(dias);
+		s.setStatus(status);
+		return s;
+	}
+}